@@ -0,0 +1,49 @@
+package com.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cada consulta registrada en CypherQueries debe resolverse con índices una vez creado el esquema
+class QueryPlanGuardTest {
+    private Neo4j neo4j;
+    private Neo4jConnectionManager connectionManager;
+
+    @BeforeEach
+    void start() {
+        neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+        connectionManager = new Neo4jConnectionManager(neo4j.boltURI().toString(), "neo4j", "neo4j");
+        // Algunos datos para que el planificador no trabaje con estadísticas vacías
+        connectionManager.write("UNWIND range(1, 300) AS i CREATE (:Videojuego {id: toString(i), nombre: 'J' + i, updatedAt: i})",
+            Values.parameters());
+        connectionManager.write("UNWIND range(1, 10) AS i CREATE (:Genre {name: 'G' + i}) CREATE (:Platform {name: 'P' + i})",
+            Values.parameters());
+        connectionManager.write("UNWIND range(0, 1999) AS i CREATE (:User {id: 'u' + i})", Values.parameters());
+    }
+
+    @AfterEach
+    void stop() {
+        connectionManager.cerrar();
+        neo4j.close();
+    }
+
+    @Test
+    void everyRegisteredQueryUsesIndexesWithSchema() {
+        assertEquals(List.of(), new SchemaBootstrapper(connectionManager).bootstrap());
+
+        assertEquals(List.of(), QueryPlanGuard.forServices(connectionManager).check());
+    }
+
+    // Sin índices la guarda tiene que fallar; si no, la prueba anterior no demuestra nada
+    @Test
+    void missingSchemaIsReported() {
+        assertFalse(QueryPlanGuard.forServices(connectionManager).check().isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example;
+
+import org.neo4j.driver.Values;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.*;
+
+// Neo4j embebido con el catálogo de vgsales.csv y un grafo social sintético.
+// La semilla es fija, así que dos ejecuciones con los mismos parámetros generan el mismo grafo.
+@State(Scope.Benchmark)
+public class BenchmarkGraph {
+    static final long SEED = 42L;
+    static final int SAMPLE_SIZE = 1024;
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"20"})
+    public int friendsPerUser;
+
+    @Param({"15"})
+    public int likesPerUser;
+
+    @Param({"10"})
+    public int playedPerUser;
+
+    Neo4j neo4j;
+    Neo4jConnectionManager connectionManager;
+    String[] sampleUserIds;
+    String[] sampleGameIds;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+        connectionManager = new Neo4jConnectionManager(neo4j.boltURI().toString(), "neo4j", "neo4j");
+
+        new VgSalesImporter(connectionManager).importCsv((String) null);
+        List<String> gameIds = connectionManager.readList(
+            "MATCH (game:Videojuego) RETURN game.id AS gameId ORDER BY game.rank",
+            record -> record.get("gameId").asString());
+
+        connectionManager.write("CREATE CONSTRAINT user_id IF NOT EXISTS FOR (user:User) REQUIRE user.id IS UNIQUE",
+            Values.parameters());
+        seedSocialGraph(gameIds);
+
+        Random random = new Random(SEED);
+        sampleUserIds = new String[SAMPLE_SIZE];
+        sampleGameIds = new String[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sampleUserIds[i] = userId(random.nextInt(users));
+            sampleGameIds[i] = gameIds.get(popularGame(random, gameIds.size()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        connectionManager.cerrar();
+        neo4j.close();
+    }
+
+    private void seedSocialGraph(List<String> gameIds) {
+        Random random = new Random(SEED);
+        List<String> userBatch = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            userBatch.add(userId(user));
+        }
+        connectionManager.write("UNWIND $ids AS id MERGE (:User {id: id, nombre: 'Usuario ' + id})",
+            Values.parameters("ids", userBatch));
+
+        List<Map<String, Object>> friends = new ArrayList<>();
+        List<Map<String, Object>> likes = new ArrayList<>();
+        List<Map<String, Object>> played = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            for (int i = 0; i < friendsPerUser; i++) {
+                int friend = random.nextInt(users);
+                if (friend != user) {
+                    friends.add(edge(userId(user), userId(friend)));
+                }
+            }
+            for (int i = 0; i < likesPerUser; i++) {
+                likes.add(edge(userId(user), gameIds.get(popularGame(random, gameIds.size()))));
+            }
+            for (int i = 0; i < playedPerUser; i++) {
+                played.add(edge(userId(user), gameIds.get(popularGame(random, gameIds.size()))));
+            }
+        }
+
+        writeEdges("MATCH (a:User {id: row.source}) MATCH (b:User {id: row.target}) MERGE (a)-[:FRIENDS_WITH]->(b)", friends);
+        writeEdges("MATCH (a:User {id: row.source}) MATCH (g:Videojuego {id: row.target}) MERGE (a)-[:LIKES]->(g)", likes);
+        writeEdges("MATCH (a:User {id: row.source}) MATCH (g:Videojuego {id: row.target}) MERGE (a)-[:PLAYED]->(g)", played);
+    }
+
+    private void writeEdges(String statement, List<Map<String, Object>> rows) {
+        for (int from = 0; from < rows.size(); from += 5000) {
+            List<Map<String, Object>> batch = rows.subList(from, Math.min(rows.size(), from + 5000));
+            connectionManager.write("UNWIND $rows AS row " + statement, Values.parameters("rows", batch));
+        }
+    }
+
+    private static Map<String, Object> edge(String source, String target) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("source", source);
+        row.put("target", target);
+        return row;
+    }
+
+    // Sesgo hacia los primeros puestos de ventas, como ocurre con los éxitos reales
+    static int popularGame(Random random, int gameCount) {
+        return (int) (Math.pow(random.nextDouble(), 3) * gameCount);
+    }
+
+    static String userId(int user) {
+        return "u" + user;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Carga completa del índice de categorías, el costo que paga cada arranque del servicio
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogIndexBenchmark {
+
+    @Benchmark
+    public CatalogIndex initializeCategoryMaps(BenchmarkGraph graph) {
+        return CatalogIndexLoader.load(graph.connectionManager);
+    }
+}
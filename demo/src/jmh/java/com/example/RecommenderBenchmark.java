@@ -0,0 +1,79 @@
+package com.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rutas calientes de recomendación. SampleTime da los percentiles de latencia y Throughput las ops/s.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecommenderBenchmark {
+    static final int LIMIT = 10;
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        PersonalRecommenderService personal;
+        CollaborativeRecommenderService collaborativeNeo4j;
+        CollaborativeRecommenderService collaborativeCsr;
+        CollaborativeRecommenderService collaborativeLsh;
+
+        @Setup(Level.Trial)
+        public void create(BenchmarkGraph graph) {
+            personal = new PersonalRecommenderService(graph.connectionManager);
+            collaborativeNeo4j = new CollaborativeRecommenderService(graph.connectionManager);
+            CsrGraphBackend csr = CsrGraphBackend.load(graph.connectionManager);
+            collaborativeCsr = new CollaborativeRecommenderService(csr);
+            collaborativeLsh = new CollaborativeRecommenderService(new LshGraphBackend(csr));
+        }
+    }
+
+    // Recorre la muestra de usuarios y juegos en el mismo orden en cada ejecución
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+
+        int next() {
+            position = (position + 1) & (BenchmarkGraph.SAMPLE_SIZE - 1);
+            return position;
+        }
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesByGame(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.personal.recommendGamesByGame(graph.sampleGameIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesByUserPreferences(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.personal.recommendGamesByUserPreferences(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesByFriends(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.collaborativeNeo4j.recommendGamesByFriends(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesBySimilarUsers(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.collaborativeNeo4j.recommendGamesBySimilarUsers(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesByFriendsCsr(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.collaborativeCsr.recommendGamesByFriends(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesBySimilarUsersCsr(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.collaborativeCsr.recommendGamesBySimilarUsers(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+
+    @Benchmark
+    public List<Recomendacion> recommendGamesBySimilarUsersLsh(BenchmarkGraph graph, Services services, Cursor cursor) {
+        return services.collaborativeLsh.recommendGamesBySimilarUsers(graph.sampleUserIds[cursor.next()], LIMIT);
+    }
+}
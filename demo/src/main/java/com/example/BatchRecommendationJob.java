@@ -0,0 +1,256 @@
+package com.example;
+
+import org.neo4j.driver.Values;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Trabajo nocturno: calcula el top-N de cada usuario con las estrategias de amigos, usuarios similares
+// y preferencias, y lo guarda como relaciones RECOMMENDED con puntuación.
+// Los usuarios se reparten en particiones contiguas que se procesan en un ForkJoinPool; cada partición
+// terminada se anota en un archivo de checkpoint para poder reanudar si el trabajo se interrumpe.
+public class BatchRecommendationJob {
+    public static final int DEFAULT_TOP_N = 10;
+    public static final int DEFAULT_PARTITION_SIZE = 500;
+
+    private final Neo4jConnectionManager connectionManager;
+    private final CollaborativeRecommenderService collaborativeRecommender;
+    private final PersonalRecommenderService personalRecommender;
+    private final int topN;
+    private final int partitionSize;
+    private final int parallelism;
+    private final Path checkpointFile;
+
+    private final AtomicLong usersDone = new AtomicLong();
+    private final AtomicLong relationshipsWritten = new AtomicLong();
+
+    public BatchRecommendationJob(Neo4jConnectionManager connectionManager,
+                                  CollaborativeRecommenderService collaborativeRecommender,
+                                  PersonalRecommenderService personalRecommender,
+                                  Path checkpointFile) {
+        this(connectionManager, collaborativeRecommender, personalRecommender, checkpointFile,
+            DEFAULT_TOP_N, DEFAULT_PARTITION_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRecommendationJob(Neo4jConnectionManager connectionManager,
+                                  CollaborativeRecommenderService collaborativeRecommender,
+                                  PersonalRecommenderService personalRecommender,
+                                  Path checkpointFile, int topN, int partitionSize, int parallelism) {
+        if (topN <= 0 || partitionSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("topN, partitionSize y parallelism deben ser positivos");
+        }
+        this.connectionManager = connectionManager;
+        this.collaborativeRecommender = collaborativeRecommender;
+        this.personalRecommender = personalRecommender;
+        this.checkpointFile = checkpointFile;
+        this.topN = topN;
+        this.partitionSize = partitionSize;
+        this.parallelism = parallelism;
+    }
+
+    public BatchResult run() {
+        long start = System.nanoTime();
+        List<String> userIds = connectionManager.readList(CypherQueries.BATCH_USER_IDS_QUERY, record -> record.get("userId").asString());
+        int partitionCount = (userIds.size() + partitionSize - 1) / partitionSize;
+
+        // Reanudar: las particiones anotadas en el checkpoint ya están escritas
+        String header = "usuarios=" + userIds.size() + " particion=" + partitionSize + " topN=" + topN;
+        Set<String> completed = readCheckpoint(header);
+        List<Integer> pending = new ArrayList<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (completed.contains(partitionKey(userIds, partition))) {
+                usersDone.addAndGet(partitionEnd(userIds, partition) - partition * partitionSize);
+            } else {
+                pending.add(partition);
+            }
+        }
+        long resumedUsers = usersDone.get();
+        System.out.println("Usuarios: " + userIds.size() + ", particiones pendientes: " + pending.size() + "/" + partitionCount);
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        progress.scheduleAtFixedRate(() -> printProgress(userIds.size(), resumedUsers, start), 10, 10, TimeUnit.SECONDS);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (BufferedWriter checkpoint = openCheckpoint(header, completed.isEmpty())) {
+            pool.invoke(new PartitionTask(userIds, pending, 0, pending.size(), checkpoint));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el checkpoint " + checkpointFile, e);
+        } finally {
+            pool.shutdown();
+            progress.shutdownNow();
+        }
+
+        // Trabajo completo: el checkpoint ya no hace falta
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el checkpoint: " + e.getMessage());
+        }
+
+        BatchResult result = new BatchResult(usersDone.get() - resumedUsers, relationshipsWritten.get(), System.nanoTime() - start);
+        System.out.println(result);
+        return result;
+    }
+
+    private class PartitionTask extends RecursiveAction {
+        private final List<String> userIds;
+        private final List<Integer> partitions;
+        private final int from;
+        private final int to;
+        private final BufferedWriter checkpoint;
+
+        PartitionTask(List<String> userIds, List<Integer> partitions, int from, int to, BufferedWriter checkpoint) {
+            this.userIds = userIds;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    processPartition(userIds, partitions.get(from), checkpoint);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PartitionTask(userIds, partitions, from, middle, checkpoint),
+                      new PartitionTask(userIds, partitions, middle, to, checkpoint));
+        }
+    }
+
+    private void processPartition(List<String> userIds, int partition, BufferedWriter checkpoint) {
+        List<String> users = userIds.subList(partition * partitionSize, partitionEnd(userIds, partition));
+        List<Map<String, Object>> rows = new ArrayList<>(users.size() * topN * 3);
+
+        for (String userId : users) {
+            addRows(rows, userId, RecommendationStrategy.FRIENDS,
+                collaborativeRecommender.recommendGamesByFriends(userId, topN));
+            addRows(rows, userId, RecommendationStrategy.SIMILAR_USERS,
+                collaborativeRecommender.recommendGamesBySimilarUsers(userId, topN));
+            addRows(rows, userId, RecommendationStrategy.USER_PREFERENCES,
+                personalRecommender.recommendGamesByUserPreferences(userId, topN));
+        }
+
+        // Reemplazo atómico de las recomendaciones de la partición
+        connectionManager.executeWrite("lote.escrituraParticion", tx -> {
+            tx.run(CypherQueries.DELETE_RECOMMENDED_QUERY, Values.parameters("userIds", users)).consume();
+            tx.run(CypherQueries.WRITE_RECOMMENDED_QUERY, Values.parameters("rows", rows)).consume();
+            return null;
+        });
+
+        relationshipsWritten.addAndGet(rows.size());
+        usersDone.addAndGet(users.size());
+        markCompleted(checkpoint, partitionKey(userIds, partition));
+    }
+
+    private static void addRows(List<Map<String, Object>> rows, String userId, RecommendationStrategy strategy,
+                                List<Recomendacion> recommendations) {
+        for (int rank = 0; rank < recommendations.size(); rank++) {
+            Recomendacion recommendation = recommendations.get(rank);
+            Map<String, Object> row = new HashMap<>();
+            row.put("userId", userId);
+            row.put("gameId", recommendation.getJuegoId());
+            row.put("estrategia", strategy.name());
+            row.put("score", recommendation.getPuntuacion());
+            row.put("rank", rank + 1);
+            rows.add(row);
+        }
+    }
+
+    // La clave incluye los ids de los extremos para no reutilizar un checkpoint de otro conjunto de usuarios
+    private String partitionKey(List<String> userIds, int partition) {
+        return partition + "\t" + userIds.get(partition * partitionSize) + "\t" + userIds.get(partitionEnd(userIds, partition) - 1);
+    }
+
+    private int partitionEnd(List<String> userIds, int partition) {
+        return Math.min(userIds.size(), (partition + 1) * partitionSize);
+    }
+
+    private Set<String> readCheckpoint(String header) {
+        if (!Files.exists(checkpointFile)) {
+            return Collections.emptySet();
+        }
+        try {
+            List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(header)) {
+                System.out.println("Checkpoint de otra ejecución; se empieza de cero");
+                return Collections.emptySet();
+            }
+            return new HashSet<>(lines.subList(1, lines.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private BufferedWriter openCheckpoint(String header, boolean fresh) throws IOException {
+        if (fresh) {
+            BufferedWriter writer = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            writer.write(header);
+            writer.newLine();
+            writer.flush();
+            return writer;
+        }
+        return Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static void markCompleted(BufferedWriter checkpoint, String partitionKey) {
+        synchronized (checkpoint) {
+            try {
+                checkpoint.write(partitionKey);
+                checkpoint.newLine();
+                checkpoint.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void printProgress(int totalUsers, long resumedUsers, long startNanos) {
+        long done = usersDone.get();
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.println(String.format("Procesados %d/%d usuarios (%.1f usuarios/s)",
+            done, totalUsers, seconds == 0 ? 0 : (done - resumedUsers) / seconds));
+    }
+
+    public static class BatchResult {
+        private final long users;
+        private final long relationships;
+        private final long elapsedNanos;
+
+        public BatchResult(long users, long relationships, long elapsedNanos) {
+            this.users = users;
+            this.relationships = relationships;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getUsers() {return users;}
+        public long getRelationships() {return relationships;}
+        public long getElapsedMillis() {return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);}
+
+        public double getUsersPerSecond() {
+            return elapsedNanos == 0 ? 0 : users * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Lote completado: " + users + " usuarios, " + relationships + " relaciones RECOMMENDED en " +
+                getElapsedMillis() + " ms (" + String.format("%.1f", getUsersPerSecond()) + " usuarios/s)";
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example;
+
+// Estadísticas de la caché de recomendaciones en un instante dado
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long evictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() {return hits;}
+    public long getMisses() {return misses;}
+    public long getEvictions() {return evictions;}
+    public long getExpirations() {return expirations;}
+    public long getInvalidations() {return invalidations;}
+    public int getSize() {return size;}
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "aciertos=" + hits +
+                ", fallos=" + misses +
+                ", tasaAciertos=" + String.format("%.2f", getHitRate()) +
+                ", desalojos=" + evictions +
+                ", expirados=" + expirations +
+                ", invalidados=" + invalidations +
+                ", tamaño=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,201 @@
+package com.example;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Fachada con caché sobre los servicios personal y colaborativo.
+// Los métodos on*Changed deben llamarse después de escribir LIKES, PLAYED o FRIENDS_WITH
+// para invalidar solo las entradas que dependen de esa arista.
+// Los fallos de caché simultáneos para la misma clave comparten un único cálculo (SingleFlight).
+public class CachedRecommenderService {
+    private final PersonalRecommenderService personalRecommender;
+    private final CollaborativeRecommenderService collaborativeRecommender;
+    private final HybridRecommenderService hybridRecommender;
+    private final Neo4jConnectionManager connectionManager;
+    private final RecommendationCache cache;
+    private final SingleFlight<RecommendationKey, List<Recomendacion>> singleFlight = new SingleFlight<>();
+
+    public CachedRecommenderService(PersonalRecommenderService personalRecommender,
+                                    CollaborativeRecommenderService collaborativeRecommender,
+                                    Neo4jConnectionManager connectionManager) {
+        this(personalRecommender, collaborativeRecommender, connectionManager, new RecommendationCache());
+    }
+
+    public CachedRecommenderService(PersonalRecommenderService personalRecommender,
+                                    CollaborativeRecommenderService collaborativeRecommender,
+                                    Neo4jConnectionManager connectionManager,
+                                    RecommendationCache cache) {
+        this(personalRecommender, collaborativeRecommender, new HybridRecommenderService(connectionManager),
+            connectionManager, cache);
+    }
+
+    public CachedRecommenderService(PersonalRecommenderService personalRecommender,
+                                    CollaborativeRecommenderService collaborativeRecommender,
+                                    HybridRecommenderService hybridRecommender,
+                                    Neo4jConnectionManager connectionManager,
+                                    RecommendationCache cache) {
+        this.personalRecommender = personalRecommender;
+        this.collaborativeRecommender = collaborativeRecommender;
+        this.hybridRecommender = hybridRecommender;
+        this.connectionManager = connectionManager;
+        this.cache = cache;
+    }
+
+    public List<Recomendacion> recommendGamesByFriends(String userId, int maxRecommendations) {
+        return load(new RecommendationKey(RecommendationStrategy.FRIENDS, userId, maxRecommendations),
+            () -> collaborativeRecommender.recommendGamesByFriends(userId, maxRecommendations));
+    }
+
+    public List<Recomendacion> recommendGamesBySimilarUsers(String userId, int maxRecommendations) {
+        return load(new RecommendationKey(RecommendationStrategy.SIMILAR_USERS, userId, maxRecommendations),
+            () -> collaborativeRecommender.recommendGamesBySimilarUsers(userId, maxRecommendations));
+    }
+
+    public List<Recomendacion> recommendGamesByUserPreferences(String userId, int maxRecommendations) {
+        return load(new RecommendationKey(RecommendationStrategy.USER_PREFERENCES, userId, maxRecommendations),
+            () -> personalRecommender.recommendGamesByUserPreferences(userId, maxRecommendations));
+    }
+
+    public List<Recomendacion> recommendGamesByGame(String gameId, int maxRecommendations) {
+        return load(new RecommendationKey(RecommendationStrategy.GAME, gameId, maxRecommendations),
+            () -> personalRecommender.recommendGamesByGame(gameId, maxRecommendations));
+    }
+
+    public List<Recomendacion> recommendGamesHybrid(String userId, int maxRecommendations) {
+        return load(new RecommendationKey(RecommendationStrategy.HYBRID, userId, maxRecommendations),
+            () -> hybridRecommender.recommendGames(userId, maxRecommendations));
+    }
+
+    // Las páginas no pasan por la caché: el cursor ya hace que cada página solo traiga filas nuevas
+    public RecommendationPage recommendGamesBySimilarUsersPage(String userId, int pageSize, String cursor) {
+        return collaborativeRecommender.recommendGamesBySimilarUsersPage(userId, pageSize, cursor);
+    }
+
+    public RecommendationPage recommendGamesByUserPreferencesPage(String userId, int pageSize, String cursor) {
+        return personalRecommender.recommendGamesByUserPreferencesPage(userId, pageSize, cursor);
+    }
+
+    // SingleFlight va fuera de la caché: solo el primero guarda, y con la época de cuando empezó su cálculo.
+    // Quien se une a un cálculo en vuelo recibe su resultado pero no lo guarda, aunque llegue después
+    // de una invalidación que hizo obsoleto ese cálculo.
+    List<Recomendacion> load(RecommendationKey key, Supplier<List<Recomendacion>> loader) {
+        List<Recomendacion> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.execute(key, () -> cache.load(key, loader));
+    }
+
+    public void onLikesChanged(String userId, String gameId) {
+        onInteractionsChanged(List.of(InteractionEvent.likes(userId, gameId)));
+    }
+
+    public void onPlayedChanged(String userId, String gameId) {
+        onInteractionsChanged(List.of(InteractionEvent.played(userId, gameId)));
+    }
+
+    public void onFriendshipChanged(String userId, String friendId) {
+        onInteractionsChanged(List.of(InteractionEvent.friendship(userId, friendId)));
+    }
+
+    // Un lote de aristas ya escritas; cada dependencia se resuelve con una sola consulta para todo el lote.
+    // Un LIKES nuevo o borrado cambia:
+    //  - todas las recomendaciones del propio usuario,
+    //  - las de amigos de quienes lo tienen como amigo (directos y a dos saltos),
+    //  - las de usuarios similares que comparten algún juego con él o tienen el juego en LIKES
+    //    (si el LIKES se borró, ya no comparten ese juego y la consulta no los encontraría por el usuario),
+    //  - las basadas en juego del juego y de los juegos con los que está conectado.
+    // PLAYED solo se usa para excluir juegos del propio usuario y como atributo compartido.
+    // FRIENDS_WITH cambia los amigos directos del usuario y los amigos de amigos de quienes lo siguen.
+    public void onInteractionsChanged(Collection<InteractionEvent> events) {
+        Set<String> likeUsers = new LinkedHashSet<>();
+        Set<String> likeGames = new LinkedHashSet<>();
+        Set<String> gameUsers = new LinkedHashSet<>();
+        Set<String> games = new LinkedHashSet<>();
+        Set<String> friendshipUsers = new LinkedHashSet<>();
+        for (InteractionEvent event : events) {
+            switch (event.getType()) {
+                case LIKES:
+                    likeUsers.add(event.getUserId());
+                    likeGames.add(event.getTargetId());
+                    gameUsers.add(event.getUserId());
+                    games.add(event.getTargetId());
+                    break;
+                case PLAYED:
+                    gameUsers.add(event.getUserId());
+                    games.add(event.getTargetId());
+                    break;
+                case FRIENDS_WITH:
+                    friendshipUsers.add(event.getUserId());
+                    break;
+            }
+        }
+
+        for (String userId : gameUsers) {
+            invalidateUser(userId);
+        }
+        if (!likeUsers.isEmpty()) {
+            invalidateUsers(readUserIds(CypherQueries.FRIEND_DEPENDENTS_QUERY, Values.parameters("userIds", new ArrayList<>(likeUsers))),
+                RecommendationStrategy.FRIENDS, RecommendationStrategy.HYBRID);
+            invalidateUsers(readUserIds(CypherQueries.SIMILAR_DEPENDENTS_QUERY,
+                Values.parameters("userIds", new ArrayList<>(likeUsers), "gameIds", new ArrayList<>(likeGames))),
+                RecommendationStrategy.SIMILAR_USERS, RecommendationStrategy.HYBRID);
+        }
+        if (!gameUsers.isEmpty()) {
+            invalidateGamesOf(gameUsers, games);
+        }
+        if (!friendshipUsers.isEmpty()) {
+            invalidateUsers(new ArrayList<>(friendshipUsers), RecommendationStrategy.FRIENDS, RecommendationStrategy.HYBRID);
+            invalidateUsers(readUserIds(CypherQueries.FOLLOWERS_QUERY, Values.parameters("userIds", new ArrayList<>(friendshipUsers))),
+                RecommendationStrategy.FRIENDS, RecommendationStrategy.HYBRID);
+        }
+    }
+
+    private List<String> readUserIds(String query, Value parameters) {
+        return connectionManager.readList(query, parameters, record -> record.get("userId").asString());
+    }
+
+    private void invalidateUser(String userId) {
+        cache.invalidate(userId,
+            RecommendationStrategy.FRIENDS,
+            RecommendationStrategy.SIMILAR_USERS,
+            RecommendationStrategy.USER_PREFERENCES,
+            RecommendationStrategy.HYBRID);
+    }
+
+    private void invalidateUsers(List<String> userIds, RecommendationStrategy... strategies) {
+        for (String userId : userIds) {
+            cache.invalidate(userId, strategies);
+        }
+    }
+
+    // recommendGamesByGame cuenta LIKES y PLAYED, así que el usuario es un atributo compartido
+    private void invalidateGamesOf(Set<String> userIds, Set<String> gameIds) {
+        for (String gameId : gameIds) {
+            cache.invalidate(gameId, RecommendationStrategy.GAME);
+        }
+        for (String connectedGame : connectionManager.readList(CypherQueries.CONNECTED_GAMES_QUERY,
+                Values.parameters("userIds", new ArrayList<>(userIds)), record -> record.get("gameId").asString())) {
+            cache.invalidate(connectedGame, RecommendationStrategy.GAME);
+        }
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public SingleFlight<RecommendationKey, List<Recomendacion>> getSingleFlight() {
+        return singleFlight;
+    }
+
+    public RecommendationCache getCache() {
+        return cache;
+    }
+}
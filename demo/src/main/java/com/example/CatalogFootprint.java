@@ -0,0 +1,90 @@
+package com.example;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Compara la memoria de los mapas Map<String, Set<String>> anteriores con la del CatalogIndex,
+// construyendo ambos con los géneros, plataformas y publicadores de vgsales.csv.
+// La memoria se mide: heap ocupado tras forzar GC con la estructura viva menos el de antes de construirla.
+// Conviene ejecutarlo con un heap fijo (-Xms igual a -Xmx) para que el GC no cambie de tamaño entre medidas.
+public final class CatalogFootprint {
+    private static final int GC_ROUNDS = 5;
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<VgSalesRecord> records = VgSalesReader.readAll(args.length > 0 ? args[0] : null);
+
+        // Cada fila de Neo4j trae su propia copia del id y del nombre, así que ninguna de las dos
+        // estructuras comparte Strings con los registros leídos
+        long mapsBytes = retainedBytes(() -> {
+            Map<String, Set<String>> genreGamesMap = new HashMap<>();
+            Map<String, Set<String>> platformGamesMap = new HashMap<>();
+            Map<String, Set<String>> developerGamesMap = new HashMap<>();
+            for (VgSalesRecord record : records) {
+                if (record.getGenero() != null) {
+                    genreGamesMap.computeIfAbsent(new String(record.getGenero()), k -> new HashSet<>()).add(new String(record.getNombre()));
+                }
+                platformGamesMap.computeIfAbsent(new String(record.getPlataforma()), k -> new HashSet<>()).add(new String(record.getNombre()));
+                if (record.getPublicador() != null) {
+                    developerGamesMap.computeIfAbsent(new String(record.getPublicador()), k -> new HashSet<>()).add(new String(record.getNombre()));
+                }
+            }
+            return List.of(genreGamesMap, platformGamesMap, developerGamesMap);
+        });
+
+        CatalogIndex[] built = new CatalogIndex[1];
+        long indexBytes = retainedBytes(() -> {
+            CatalogIndex.Builder builder = new CatalogIndex.Builder();
+            for (VgSalesRecord record : records) {
+                if (record.getGenero() != null) {
+                    builder.addGenre(new String(record.getId()), new String(record.getNombre()), new String(record.getGenero()));
+                }
+                builder.addPlatform(new String(record.getId()), new String(record.getNombre()), new String(record.getPlataforma()));
+                if (record.getPublicador() != null) {
+                    builder.addDeveloper(new String(record.getId()), new String(record.getNombre()), new String(record.getPublicador()));
+                }
+            }
+            built[0] = builder.build();
+            return built[0];
+        });
+        CatalogIndex index = built[0];
+
+        System.out.println("Juegos: " + records.size());
+        System.out.println("Map<String, Set<String>> (medido): " + mapsBytes / 1024 + " KiB");
+        System.out.println("CatalogIndex (medido): " + indexBytes / 1024 + " KiB (bitmaps según RoaringBitmap: "
+            + index.bitmapSizeInBytes() / 1024 + " KiB)");
+        System.out.println(String.format("Reducción total: %.1fx, solo categorías: %.1fx",
+            (double) mapsBytes / indexBytes, (double) mapsBytes / index.bitmapSizeInBytes()));
+    }
+
+    // Heap que retiene el resultado de build: diferencia del heap ocupado tras GC antes y después de construirlo
+    static long retainedBytes(Supplier<Object> build) {
+        long before = usedHeapAfterGc();
+        Object value = build.get();
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(value);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Índice del catálogo: cada juego recibe un id entero denso y cada género, plataforma,
+// desarrollador, rating y la marca multijugador se guarda como un bitmap comprimido de ids.
+// Una instancia construida no se modifica; para cambiarla se usa toBuilder().
+public class CatalogIndex {
+    private final StringDictionary gameIds;
+    private final String[] gameNames;
+    private final Map<String, RoaringBitmap> genres;
+    private final Map<String, RoaringBitmap> platforms;
+    private final Map<String, RoaringBitmap> developers;
+    private final Map<String, RoaringBitmap> ratings;
+    private final RoaringBitmap multiplayer;
+
+    private CatalogIndex(Builder builder) {
+        this.gameIds = new StringDictionary(builder.gameIds);
+        this.gameNames = builder.gameNames.toArray(new String[0]);
+        this.genres = freeze(builder.genres);
+        this.platforms = freeze(builder.platforms);
+        this.developers = freeze(builder.developers);
+        this.ratings = freeze(builder.ratings);
+        this.multiplayer = builder.multiplayer;
+        this.multiplayer.runOptimize();
+    }
+
+    private static Map<String, RoaringBitmap> freeze(Map<String, RoaringBitmap> bitmaps) {
+        for (RoaringBitmap bitmap : bitmaps.values()) {
+            bitmap.runOptimize();
+        }
+        return Collections.unmodifiableMap(bitmaps);
+    }
+
+    public static CatalogIndex empty() {
+        return new Builder().build();
+    }
+
+    public int gameCount() {return gameNames.length;}
+
+    // -1 si el juego no está indexado
+    public int gameIndexOf(String gameId) {return gameIds.find(gameId);}
+    public String gameIdAt(int game) {return gameIds.valueOf(game);}
+    public String gameNameAt(int game) {return gameNames[game];}
+
+    public Map<String, RoaringBitmap> getGenres() {return genres;}
+    public Map<String, RoaringBitmap> getPlatforms() {return platforms;}
+    public Map<String, RoaringBitmap> getDevelopers() {return developers;}
+
+    // Unión (OR) de los bitmaps con esos nombres
+    public static RoaringBitmap union(Map<String, RoaringBitmap> bitmaps, Collection<String> names) {
+        List<RoaringBitmap> selected = new ArrayList<>(names.size());
+        for (String name : names) {
+            RoaringBitmap bitmap = bitmaps.get(name);
+            if (bitmap != null) {
+                selected.add(bitmap);
+            }
+        }
+        return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+    }
+
+    // Tamaño aproximado en bytes de los bitmaps
+    public long bitmapSizeInBytes() {
+        long total = multiplayer.getLongSizeInBytes();
+        for (Map<String, RoaringBitmap> bitmaps : List.of(genres, platforms, developers, ratings)) {
+            for (RoaringBitmap bitmap : bitmaps.values()) {
+                total += bitmap.getLongSizeInBytes();
+            }
+        }
+        return total;
+    }
+
+    // Formato binario de CatalogSnapshot: ids y nombres como UTF-8 con su longitud, luego cada mapa
+    // (nombre + bitmap en el formato portable de Roaring) y al final el bitmap multijugador
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(gameNames.length);
+        for (int game = 0; game < gameNames.length; game++) {
+            writeString(out, gameIds.valueOf(game));
+            writeString(out, gameNames[game]);
+        }
+        for (Map<String, RoaringBitmap> bitmaps : List.of(genres, platforms, developers, ratings)) {
+            out.writeInt(bitmaps.size());
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                writeString(out, entry.getKey());
+                writeBitmap(out, entry.getValue());
+            }
+        }
+        writeBitmap(out, multiplayer);
+    }
+
+    // Lee un índice escrito con writeTo a partir de la posición actual del buffer
+    public static CatalogIndex readFrom(ByteBuffer buffer) throws IOException {
+        Builder builder = new Builder();
+        int gameCount = buffer.getInt();
+        for (int game = 0; game < gameCount; game++) {
+            String gameId = readString(buffer);
+            builder.addGame(gameId, readString(buffer));
+        }
+        for (Map<String, RoaringBitmap> bitmaps : List.of(builder.genres, builder.platforms, builder.developers, builder.ratings)) {
+            int size = buffer.getInt();
+            for (int i = 0; i < size; i++) {
+                String name = readString(buffer);
+                bitmaps.put(name, readBitmap(buffer));
+            }
+        }
+        builder.multiplayer.or(readBitmap(buffer));
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBitmap(DataOutputStream out, RoaringBitmap bitmap) throws IOException {
+        out.writeInt(bitmap.serializedSizeInBytes());
+        bitmap.serialize(out);
+    }
+
+    private static RoaringBitmap readBitmap(ByteBuffer buffer) throws IOException {
+        int size = buffer.getInt();
+        ByteBuffer slice = buffer.slice();
+        slice.limit(size);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.deserialize(slice);
+        buffer.position(buffer.position() + size);
+        return bitmap;
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public static class Builder {
+        private final StringDictionary gameIds;
+        private final List<String> gameNames;
+        private final Map<String, RoaringBitmap> genres;
+        private final Map<String, RoaringBitmap> platforms;
+        private final Map<String, RoaringBitmap> developers;
+        private final Map<String, RoaringBitmap> ratings;
+        private final RoaringBitmap multiplayer;
+
+        public Builder() {
+            this.gameIds = new StringDictionary();
+            this.gameNames = new ArrayList<>();
+            this.genres = new HashMap<>();
+            this.platforms = new HashMap<>();
+            this.developers = new HashMap<>();
+            this.ratings = new HashMap<>();
+            this.multiplayer = new RoaringBitmap();
+        }
+
+        private Builder(CatalogIndex index) {
+            this.gameIds = new StringDictionary(index.gameIds);
+            this.gameNames = new ArrayList<>(Arrays.asList(index.gameNames));
+            this.genres = copy(index.genres);
+            this.platforms = copy(index.platforms);
+            this.developers = copy(index.developers);
+            this.ratings = copy(index.ratings);
+            this.multiplayer = index.multiplayer.clone();
+        }
+
+        private static Map<String, RoaringBitmap> copy(Map<String, RoaringBitmap> bitmaps) {
+            Map<String, RoaringBitmap> copy = new HashMap<>();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                copy.put(entry.getKey(), entry.getValue().clone());
+            }
+            return copy;
+        }
+
+        public int addGame(String gameId, String gameName) {
+            int game = gameIds.idOf(gameId);
+            if (game == gameNames.size()) {
+                gameNames.add(gameName);
+            } else if (gameName != null) {
+                gameNames.set(game, gameName);
+            }
+            return game;
+        }
+
+        public Builder addGenre(String gameId, String gameName, String genre) {
+            add(genres, genre, addGame(gameId, gameName));
+            return this;
+        }
+
+        public Builder addPlatform(String gameId, String gameName, String platform) {
+            add(platforms, platform, addGame(gameId, gameName));
+            return this;
+        }
+
+        public Builder addDeveloper(String gameId, String gameName, String developer) {
+            add(developers, developer, addGame(gameId, gameName));
+            return this;
+        }
+
+        public Builder addRating(String gameId, String gameName, String rating) {
+            add(ratings, rating, addGame(gameId, gameName));
+            return this;
+        }
+
+        public Builder addMultiplayer(String gameId, String gameName) {
+            multiplayer.add(addGame(gameId, gameName));
+            return this;
+        }
+
+        // Quita el juego de todas las categorías; conserva su id para no mover los demás
+        public Builder clearGame(String gameId) {
+            int game = gameIds.find(gameId);
+            if (game < 0) {
+                return this;
+            }
+            for (Map<String, RoaringBitmap> bitmaps : List.of(genres, platforms, developers, ratings)) {
+                bitmaps.values().removeIf(bitmap -> bitmap.checkedRemove(game) && bitmap.isEmpty());
+            }
+            multiplayer.remove(game);
+            return this;
+        }
+
+        private static void add(Map<String, RoaringBitmap> bitmaps, String name, int game) {
+            if (name != null) {
+                bitmaps.computeIfAbsent(name, k -> new RoaringBitmap()).add(game);
+            }
+        }
+
+        public CatalogIndex build() {
+            return new CatalogIndex(this);
+        }
+    }
+}
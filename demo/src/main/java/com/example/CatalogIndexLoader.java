@@ -0,0 +1,157 @@
+package com.example;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Construye el CatalogIndex a partir de las relaciones del grafo
+public final class CatalogIndexLoader {
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    // Cada consulta y cómo se aplica su fila al Builder
+    private enum Source {
+        GENRES(CypherQueries.GENRES_QUERY) {
+            void apply(CatalogIndex.Builder builder, Row row) {builder.addGenre(row.gameId, row.gameName, row.name);}
+        },
+        PLATFORMS(CypherQueries.PLATFORMS_QUERY) {
+            void apply(CatalogIndex.Builder builder, Row row) {builder.addPlatform(row.gameId, row.gameName, row.name);}
+        },
+        DEVELOPERS(CypherQueries.DEVELOPERS_QUERY) {
+            void apply(CatalogIndex.Builder builder, Row row) {builder.addDeveloper(row.gameId, row.gameName, row.name);}
+        },
+        MULTIPLAYER(CypherQueries.MULTIPLAYER_QUERY) {
+            void apply(CatalogIndex.Builder builder, Row row) {builder.addMultiplayer(row.gameId, row.gameName);}
+        },
+        RATINGS(CypherQueries.RATINGS_QUERY) {
+            void apply(CatalogIndex.Builder builder, Row row) {builder.addRating(row.gameId, row.gameName, row.name);}
+        };
+
+        private final String query;
+
+        Source(String query) {
+            this.query = query;
+        }
+
+        abstract void apply(CatalogIndex.Builder builder, Row row);
+    }
+
+    private static final class Row {
+        private static final Row END = new Row(null, null, null, null);
+
+        private final Source source;
+        private final String gameId;
+        private final String gameName;
+        private final String name;
+
+        private Row(Source source, String gameId, String gameName, String name) {
+            this.source = source;
+            this.gameId = gameId;
+            this.gameName = gameName;
+            this.name = name;
+        }
+    }
+
+    private CatalogIndexLoader() {
+    }
+
+    public static CatalogIndex load(Neo4jConnectionManager connectionManager) {
+        return load(connectionManager, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    // Las cinco consultas corren a la vez, cada una en su sesión, y entregan sus filas a una cola acotada.
+    // El Builder no es thread-safe, así que solo lo toca el hilo que llama. Con la cola llena los productores
+    // se bloquean y el driver no pide el siguiente lote de fetchSize filas hasta que haya sitio.
+    public static CatalogIndex load(Neo4jConnectionManager connectionManager, int queueCapacity) {
+        Source[] sources = Source.values();
+        BlockingQueue<Row> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(sources.length);
+
+        try {
+            for (Source source : sources) {
+                executor.execute(() -> {
+                    try {
+                        connectionManager.readEach(source.query, record -> put(queue, new Row(source,
+                            record.get("gameId").asString(), record.get("gameName").asString(null),
+                            record.get("name").asString(null))));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        put(queue, Row.END);
+                    }
+                });
+            }
+
+            CatalogIndex.Builder builder = new CatalogIndex.Builder();
+            int finished = 0;
+            while (finished < sources.length) {
+                Row row = queue.take();
+                if (row == Row.END) {
+                    finished++;
+                } else {
+                    row.source.apply(builder, row);
+                }
+            }
+
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return builder.build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga del índice interrumpida", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void put(BlockingQueue<Row> queue, Row row) {
+        try {
+            queue.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga del índice interrumpida", e);
+        }
+    }
+
+    // Número de juegos y marca de cambios más reciente (0 si ningún juego la tiene)
+    public static CatalogVersion latestVersion(Neo4jConnectionManager connectionManager) {
+        return connectionManager.readList(CypherQueries.LATEST_VERSION_QUERY,
+            record -> new CatalogVersion(record.get("games").asLong(), record.get("marker").asLong())).get(0);
+    }
+
+    // Versión del grafo con la que se construyó un índice
+    public static final class CatalogVersion {
+        private final long games;
+        private final long marker;
+
+        public CatalogVersion(long games, long marker) {
+            this.games = games;
+            this.marker = marker;
+        }
+
+        public long getGames() {return games;}
+        public long getMarker() {return marker;}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CatalogVersion that = (CatalogVersion) o;
+            return games == that.games && marker == that.marker;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(games, marker);
+        }
+
+        @Override
+        public String toString() {
+            return "juegos=" + games + ", marca=" + marker;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Mantiene al día el CatalogIndex sin bloquear a los lectores.
+// Cada refresco trae solo los juegos con game.updatedAt posterior a la última sincronización,
+// aplica los cambios sobre una copia (toBuilder) y publica el índice nuevo con un único set atómico.
+// Quien escriba categorías de un juego debe actualizar game.updatedAt (el importador usa timestamp()).
+// Los borrados no dejan marca, así que cada fullReloadEvery refrescos se recarga el índice completo.
+// Con un snapshotFile el arranque lee el índice del disco si sigue vigente y cada recarga completa lo reescribe.
+public class CatalogIndexRefresher implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    public static final int DEFAULT_FULL_RELOAD_EVERY = 60;
+
+    private final Neo4jConnectionManager connectionManager;
+    private final AtomicReference<CatalogIndex> current;
+    private final int fullReloadEvery;
+    private final Path snapshotFile;
+    private ScheduledExecutorService scheduler;
+
+    // Solo se tocan dentro de refresh(), que está sincronizado
+    private long changeMarker;
+    private Set<String> idsAtMarker = new HashSet<>();
+
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile int lastChangedGames;
+    private volatile long lastDurationNanos;
+    private volatile long lastSyncMillis;
+
+    public CatalogIndexRefresher(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_FULL_RELOAD_EVERY);
+    }
+
+    public CatalogIndexRefresher(Neo4jConnectionManager connectionManager, int fullReloadEvery) {
+        this(connectionManager, fullReloadEvery, null);
+    }
+
+    public CatalogIndexRefresher(Neo4jConnectionManager connectionManager, int fullReloadEvery, Path snapshotFile) {
+        if (fullReloadEvery <= 0) {
+            throw new IllegalArgumentException("fullReloadEvery debe ser positivo");
+        }
+        this.connectionManager = connectionManager;
+        this.fullReloadEvery = fullReloadEvery;
+        this.snapshotFile = snapshotFile;
+        this.current = new AtomicReference<>();
+        if (snapshotFile == null || !restore()) {
+            reload();
+        }
+    }
+
+    public static CatalogIndexRefresher open(Neo4jConnectionManager connectionManager, Path snapshotFile) {
+        return new CatalogIndexRefresher(connectionManager, DEFAULT_FULL_RELOAD_EVERY, snapshotFile);
+    }
+
+    // Índice publicado; cada llamada a un recomendador debe leerlo una sola vez y usar esa instancia
+    public CatalogIndex current() {
+        return current.get();
+    }
+
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("No se pudo refrescar el índice del catálogo: " + e.getMessage());
+        }
+    }
+
+    // Aplica los cambios pendientes y devuelve cuántos juegos cambiaron
+    public synchronized int refresh() {
+        if ((refreshes.get() + 1) % fullReloadEvery == 0) {
+            return reload();
+        }
+        long start = System.nanoTime();
+        long syncStart = System.currentTimeMillis();
+
+        Delta delta = new Delta(current.get(), changeMarker, idsAtMarker);
+        connectionManager.readEach(CypherQueries.CHANGES_QUERY, Values.parameters("since", changeMarker), delta);
+        if (delta.builder != null) {
+            current.set(delta.builder.build());
+        }
+        changeMarker = delta.marker;
+        idsAtMarker = delta.idsAtMarker;
+
+        finish(delta.changedGames, start, syncStart);
+        return delta.changedGames;
+    }
+
+    // Recarga completa; la versión se lee antes para que lo escrito durante la carga vuelva a aplicarse
+    public synchronized int reload() {
+        long start = System.nanoTime();
+        long syncStart = System.currentTimeMillis();
+
+        CatalogIndexLoader.CatalogVersion version = CatalogIndexLoader.latestVersion(connectionManager);
+        CatalogIndex index = CatalogIndexLoader.load(connectionManager);
+        current.set(index);
+        changeMarker = version.getMarker();
+        idsAtMarker = new HashSet<>();
+        saveSnapshot(index, version);
+
+        finish(index.gameCount(), start, syncStart);
+        return index.gameCount();
+    }
+
+    // Usa el snapshot si el grafo no cambió desde que se escribió. Si solo hubo altas o cambios con marca
+    // aplica el delta sobre él; si desaparecieron juegos o hay juegos nuevos sin marca hace falta recargar.
+    private synchronized boolean restore() {
+        long start = System.nanoTime();
+        long syncStart = System.currentTimeMillis();
+
+        CatalogSnapshot snapshot = CatalogSnapshot.read(snapshotFile);
+        if (snapshot == null) {
+            return false;
+        }
+        CatalogIndexLoader.CatalogVersion saved = snapshot.getVersion();
+        CatalogIndexLoader.CatalogVersion graph = CatalogIndexLoader.latestVersion(connectionManager);
+        if (graph.equals(saved)) {
+            current.set(snapshot.getIndex());
+            changeMarker = saved.getMarker();
+            finish(0, start, syncStart);
+            System.out.println("Índice del catálogo leído de " + snapshotFile + " en " + lastDurationMillis() + " ms");
+            return true;
+        }
+        if (graph.getMarker() <= saved.getMarker() || graph.getGames() < saved.getGames()) {
+            System.out.println("Snapshot del catálogo desactualizado (" + saved + " frente a " + graph + "); se recarga");
+            return false;
+        }
+
+        current.set(snapshot.getIndex());
+        changeMarker = saved.getMarker();
+        int changed = refresh();
+        saveSnapshot(current.get(), graph);
+        System.out.println("Índice del catálogo leído de " + snapshotFile + " con " + changed + " juegos actualizados");
+        return true;
+    }
+
+    private void saveSnapshot(CatalogIndex index, CatalogIndexLoader.CatalogVersion version) {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            CatalogSnapshot.write(snapshotFile, index, version);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar el snapshot del catálogo: " + e.getMessage());
+        }
+    }
+
+    private long lastDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDurationNanos);
+    }
+
+    private void finish(int changedGames, long startNanos, long syncStartMillis) {
+        lastChangedGames = changedGames;
+        lastDurationNanos = System.nanoTime() - startNanos;
+        lastSyncMillis = syncStartMillis;
+        refreshes.incrementAndGet();
+    }
+
+    public CatalogRefreshStats getStats() {
+        long lag = lastSyncMillis == 0 ? 0 : System.currentTimeMillis() - lastSyncMillis;
+        return new CatalogRefreshStats(refreshes.get(), failures.get(), lastChangedGames,
+            lastDurationMillis(), lag, changeMarker, current.get().gameCount());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Aplica cada fila de CHANGES_QUERY sobre una copia del índice, creada solo si hay cambios.
+    // Los juegos con updatedAt igual a la marca anterior que ya se aplicaron se saltan.
+    private static final class Delta implements Consumer<Record> {
+        private final CatalogIndex base;
+        private final long since;
+        private final Set<String> appliedAtSince;
+        private CatalogIndex.Builder builder;
+        private long marker;
+        private Set<String> idsAtMarker;
+        private int changedGames;
+
+        private Delta(CatalogIndex base, long since, Set<String> appliedAtSince) {
+            this.base = base;
+            this.since = since;
+            this.appliedAtSince = appliedAtSince;
+            this.marker = since;
+            this.idsAtMarker = new HashSet<>(appliedAtSince);
+        }
+
+        @Override
+        public void accept(Record record) {
+            String gameId = record.get("gameId").asString();
+            long updatedAt = record.get("updatedAt").asLong();
+            if (updatedAt == since && appliedAtSince.contains(gameId)) {
+                return;
+            }
+            if (builder == null) {
+                builder = base.toBuilder();
+            }
+
+            String gameName = record.get("gameName").asString(null);
+            builder.clearGame(gameId);
+            builder.addGame(gameId, gameName);
+            for (Value genre : record.get("genres").values()) {
+                builder.addGenre(gameId, gameName, genre.asString());
+            }
+            for (Value platform : record.get("platforms").values()) {
+                builder.addPlatform(gameId, gameName, platform.asString());
+            }
+            for (Value developer : record.get("developers").values()) {
+                builder.addDeveloper(gameId, gameName, developer.asString());
+            }
+            if (!record.get("rating").isNull()) {
+                builder.addRating(gameId, gameName, record.get("rating").asString());
+            }
+            if (record.get("multiplayer").asBoolean()) {
+                builder.addMultiplayer(gameId, gameName);
+            }
+            changedGames++;
+
+            if (updatedAt > marker) {
+                marker = updatedAt;
+                idsAtMarker = new HashSet<>();
+            }
+            if (updatedAt == marker) {
+                idsAtMarker.add(gameId);
+            }
+        }
+    }
+}
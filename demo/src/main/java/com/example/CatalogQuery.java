@@ -0,0 +1,62 @@
+package com.example;
+
+// Filtro y orden de una consulta sobre ColumnarCatalog. Los campos en null no filtran.
+public class CatalogQuery {
+    private String genre;
+    private String platform;
+    private String publisher;
+    private Integer yearFrom;
+    private Integer yearTo;
+    private Float minCriticScore;
+    private ColumnarCatalog.Column sortBy = ColumnarCatalog.Column.VENTAS_GLOBALES;
+    private int limit = 10;
+
+    public CatalogQuery() {
+    }
+
+    public CatalogQuery(String genre, ColumnarCatalog.Column sortBy, int limit) {
+        this.genre = genre;
+        this.sortBy = sortBy;
+        this.limit = limit;
+    }
+
+    // Getters y setters
+    public String getGenre() {return genre;}
+    public void setGenre(String genre) {this.genre = genre;}
+
+    public String getPlatform() {return platform;}
+    public void setPlatform(String platform) {this.platform = platform;}
+
+    public String getPublisher() {return publisher;}
+    public void setPublisher(String publisher) {this.publisher = publisher;}
+
+    public Integer getYearFrom() {return yearFrom;}
+    public void setYearFrom(Integer yearFrom) {this.yearFrom = yearFrom;}
+
+    public Integer getYearTo() {return yearTo;}
+    public void setYearTo(Integer yearTo) {this.yearTo = yearTo;}
+
+    // Los juegos sin puntaje de crítica quedan fuera cuando se pide un mínimo
+    public Float getMinCriticScore() {return minCriticScore;}
+    public void setMinCriticScore(Float minCriticScore) {this.minCriticScore = minCriticScore;}
+
+    public ColumnarCatalog.Column getSortBy() {return sortBy;}
+    public void setSortBy(ColumnarCatalog.Column sortBy) {this.sortBy = sortBy;}
+
+    public int getLimit() {return limit;}
+    public void setLimit(int limit) {this.limit = limit;}
+
+    @Override
+    public String toString() {
+        return "CatalogQuery{" +
+                "genre='" + genre + '\'' +
+                ", platform='" + platform + '\'' +
+                ", publisher='" + publisher + '\'' +
+                ", yearFrom=" + yearFrom +
+                ", yearTo=" + yearTo +
+                ", minCriticScore=" + minCriticScore +
+                ", sortBy=" + sortBy +
+                ", limit=" + limit +
+                '}';
+    }
+}
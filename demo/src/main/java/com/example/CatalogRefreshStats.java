@@ -0,0 +1,45 @@
+package com.example;
+
+// Estado del refresco incremental del índice del catálogo en un instante dado
+public class CatalogRefreshStats {
+    private final long refreshes;
+    private final long failures;
+    private final int lastChangedGames;
+    private final long lastDurationMillis;
+    private final long lagMillis;
+    private final long changeMarker;
+    private final int gameCount;
+
+    public CatalogRefreshStats(long refreshes, long failures, int lastChangedGames, long lastDurationMillis,
+                               long lagMillis, long changeMarker, int gameCount) {
+        this.refreshes = refreshes;
+        this.failures = failures;
+        this.lastChangedGames = lastChangedGames;
+        this.lastDurationMillis = lastDurationMillis;
+        this.lagMillis = lagMillis;
+        this.changeMarker = changeMarker;
+        this.gameCount = gameCount;
+    }
+
+    public long getRefreshes() {return refreshes;}
+    public long getFailures() {return failures;}
+    public int getLastChangedGames() {return lastChangedGames;}
+    public long getLastDurationMillis() {return lastDurationMillis;}
+    // Tiempo desde la última sincronización correcta con el grafo
+    public long getLagMillis() {return lagMillis;}
+    public long getChangeMarker() {return changeMarker;}
+    public int getGameCount() {return gameCount;}
+
+    @Override
+    public String toString() {
+        return "CatalogRefreshStats{" +
+                "refrescos=" + refreshes +
+                ", fallos=" + failures +
+                ", juegosCambiados=" + lastChangedGames +
+                ", duracionMs=" + lastDurationMillis +
+                ", retrasoMs=" + lagMillis +
+                ", marca=" + changeMarker +
+                ", juegos=" + gameCount +
+                '}';
+    }
+}
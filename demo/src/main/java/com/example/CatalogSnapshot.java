@@ -0,0 +1,63 @@
+package com.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Copia binaria del CatalogIndex en disco para que un reinicio no tenga que recorrer el grafo.
+// Cabecera: número mágico, versión del formato y la CatalogVersion del grafo cuando se escribió;
+// detrás va el índice en el formato de CatalogIndex.writeTo. Se lee con un mapeo de memoria.
+public final class CatalogSnapshot {
+    private static final int MAGIC = 0x43494458; // "CIDX"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8;
+
+    private final CatalogIndex index;
+    private final CatalogIndexLoader.CatalogVersion version;
+
+    private CatalogSnapshot(CatalogIndex index, CatalogIndexLoader.CatalogVersion version) {
+        this.index = index;
+        this.version = version;
+    }
+
+    public CatalogIndex getIndex() {return index;}
+    public CatalogIndexLoader.CatalogVersion getVersion() {return version;}
+
+    // Escribe a un archivo temporal y lo mueve encima del anterior, así nunca queda un snapshot a medias
+    public static void write(Path file, CatalogIndex index, CatalogIndexLoader.CatalogVersion version) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(version.getGames());
+            out.writeLong(version.getMarker());
+            index.writeTo(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null si el archivo no existe o no es un snapshot válido de este formato
+    public static CatalogSnapshot read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                System.err.println("Snapshot del catálogo con formato desconocido: " + file);
+                return null;
+            }
+            CatalogIndexLoader.CatalogVersion version = new CatalogIndexLoader.CatalogVersion(buffer.getLong(), buffer.getLong());
+            return new CatalogSnapshot(CatalogIndex.readFrom(buffer), version);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo leer el snapshot del catálogo " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
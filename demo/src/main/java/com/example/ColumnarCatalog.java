@@ -0,0 +1,280 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Catálogo columnar en memoria para filtrar y ordenar juegos sin ir a Neo4j.
+// Cada columna numérica es un float[] indexado por fila (NaN = sin dato) y género, plataforma y
+// publicador se guardan como códigos short de un diccionario. Las filas siguen el orden de vgsales.csv,
+// que es el de ventas globales, así que a igual valor gana el juego más vendido.
+// El puntaje de crítica viene de video_games.csv, unido por título normalizado y consola.
+public final class ColumnarCatalog {
+    public static final String CRITIC_RESOURCE = "/video_games.csv";
+
+    public enum Column {
+        VENTAS_NA(100),
+        VENTAS_EU(100),
+        VENTAS_JP(100),
+        VENTAS_OTRAS(100),
+        VENTAS_GLOBALES(100),
+        ANIO(1),
+        PUNTAJE_CRITICA(1);
+
+        // Factor para pasar el valor a la puntuación entera de Recomendacion (ventas en centésimas de millón)
+        private final int scale;
+
+        Column(int scale) {
+            this.scale = scale;
+        }
+    }
+
+    // Consolas de video_games.csv con su nombre en vgsales.csv
+    private static final Map<String, String> CRITIC_CONSOLES = Map.of(
+        "Nintendo DS", "DS",
+        "Nintendo Wii", "Wii",
+        "Sony PSP", "PSP",
+        "PlayStation 3", "PS3",
+        "X360", "X360");
+
+    private final int rows;
+    private final String[] gameIds;
+    private final String[] gameNames;
+    private final StringDictionary genres;
+    private final StringDictionary platforms;
+    private final StringDictionary publishers;
+    private final short[] genreCodes;
+    private final short[] platformCodes;
+    private final short[] publisherCodes;
+    private final float[][] columns;
+    private final Map<String, Integer> rowByGameId;
+
+    private ColumnarCatalog(String[] gameIds, String[] gameNames,
+                            StringDictionary genres, StringDictionary platforms, StringDictionary publishers,
+                            short[] genreCodes, short[] platformCodes, short[] publisherCodes, float[][] columns) {
+        this.rows = gameIds.length;
+        this.gameIds = gameIds;
+        this.gameNames = gameNames;
+        this.genres = genres;
+        this.platforms = platforms;
+        this.publishers = publishers;
+        this.genreCodes = genreCodes;
+        this.platformCodes = platformCodes;
+        this.publisherCodes = publisherCodes;
+        this.columns = columns;
+        this.rowByGameId = new HashMap<>(rows * 2);
+        for (int row = 0; row < rows; row++) {
+            rowByGameId.put(gameIds[row], row);
+        }
+    }
+
+    // Lee vgsales.csv y video_games.csv; con path null se usan los de los recursos
+    public static ColumnarCatalog load(String salesPath, String criticPath) throws IOException {
+        Map<String, Float> criticScores;
+        try (InputStream in = openCritic(criticPath)) {
+            criticScores = readCriticScores(in);
+        }
+        return build(VgSalesReader.readAll(salesPath), criticScores);
+    }
+
+    public static ColumnarCatalog build(List<VgSalesRecord> records, Map<String, Float> criticScores) {
+        int rows = records.size();
+        String[] gameIds = new String[rows];
+        String[] gameNames = new String[rows];
+        StringDictionary genres = new StringDictionary();
+        StringDictionary platforms = new StringDictionary();
+        StringDictionary publishers = new StringDictionary();
+        short[] genreCodes = new short[rows];
+        short[] platformCodes = new short[rows];
+        short[] publisherCodes = new short[rows];
+        float[][] columns = new float[Column.values().length][rows];
+
+        for (int row = 0; row < rows; row++) {
+            VgSalesRecord record = records.get(row);
+            gameIds[row] = record.getId();
+            gameNames[row] = record.getNombre();
+            genreCodes[row] = code(genres, record.getGenero());
+            platformCodes[row] = code(platforms, record.getPlataforma());
+            publisherCodes[row] = code(publishers, record.getPublicador());
+
+            columns[Column.VENTAS_NA.ordinal()][row] = (float) record.getVentasNA();
+            columns[Column.VENTAS_EU.ordinal()][row] = (float) record.getVentasEU();
+            columns[Column.VENTAS_JP.ordinal()][row] = (float) record.getVentasJP();
+            columns[Column.VENTAS_OTRAS.ordinal()][row] = (float) record.getVentasOtras();
+            columns[Column.VENTAS_GLOBALES.ordinal()][row] = (float) record.getVentasGlobales();
+            columns[Column.ANIO.ordinal()][row] = record.getAnio() == null ? Float.NaN : record.getAnio();
+            Float criticScore = criticScores.get(criticKey(record.getNombre(), record.getPlataforma()));
+            columns[Column.PUNTAJE_CRITICA.ordinal()][row] = criticScore == null ? Float.NaN : criticScore;
+        }
+        return new ColumnarCatalog(gameIds, gameNames, genres, platforms, publishers,
+            genreCodes, platformCodes, publisherCodes, columns);
+    }
+
+    // -1 para valores ausentes; los diccionarios de vgsales caben de sobra en un short
+    private static short code(StringDictionary dictionary, String value) {
+        if (value == null) {
+            return -1;
+        }
+        int id = dictionary.idOf(value);
+        if (id > Short.MAX_VALUE) {
+            throw new IllegalStateException("Demasiados valores distintos para un código short: " + value);
+        }
+        return (short) id;
+    }
+
+    private static InputStream openCritic(String path) throws IOException {
+        if (path != null) {
+            return Files.newInputStream(Path.of(path));
+        }
+        InputStream in = ColumnarCatalog.class.getResourceAsStream(CRITIC_RESOURCE);
+        if (in == null) {
+            throw new IOException("No se encontró el recurso " + CRITIC_RESOURCE);
+        }
+        return in;
+    }
+
+    // Title (columna 0), Metrics.Review Score (9) y Release.Console (12) de video_games.csv
+    static Map<String, Float> readCriticScores(InputStream in) throws IOException {
+        Map<String, Float> scores = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.readLine(); // encabezado
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> fields = VgSalesReader.splitCsvLine(line);
+            String platform = fields.size() > 12 ? CRITIC_CONSOLES.get(fields.get(12)) : null;
+            if (platform == null || fields.get(9).isEmpty()) {
+                continue;
+            }
+            scores.putIfAbsent(criticKey(fields.get(0), platform), Float.parseFloat(fields.get(9)));
+        }
+        return scores;
+    }
+
+    // Los títulos de ambos archivos difieren en mayúsculas y puntuación ("Lumines: Puzzle Fusion")
+    static String criticKey(String title, String platform) {
+        StringBuilder key = new StringBuilder(title.length() + 8);
+        for (int i = 0; i < title.length(); i++) {
+            char c = Character.toLowerCase(title.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.append('|').append(platform).toString();
+    }
+
+    public List<Recomendacion> query(CatalogQuery query) {
+        int[] ordered = select(query);
+        Column sortBy = query.getSortBy();
+        List<Recomendacion> recommendations = new ArrayList<>(ordered.length);
+        for (int row : ordered) {
+            float value = value(sortBy, row);
+            recommendations.add(new Recomendacion(
+                gameIds[row],
+                gameNames[row],
+                Float.isNaN(value) ? 0 : Math.round(value * sortBy.scale),
+                Recomendacion.TipoRecomendacion.PERSONAL));
+        }
+        return recommendations;
+    }
+
+    // Filas que cumplen el filtro, de mayor a menor según la columna de orden.
+    // Cada filtro recorre una sola columna y compacta el vector de selección sin saltos condicionales;
+    // primero van las igualdades sobre códigos, que son las más selectivas.
+    public int[] select(CatalogQuery query) {
+        if (query.getLimit() <= 0) {
+            return new int[0];
+        }
+        int[] selection = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            selection[row] = row;
+        }
+        int count = rows;
+        count = filterCode(genreCodes, genres, query.getGenre(), selection, count);
+        count = filterCode(platformCodes, platforms, query.getPlatform(), selection, count);
+        count = filterCode(publisherCodes, publishers, query.getPublisher(), selection, count);
+        if (query.getYearFrom() != null || query.getYearTo() != null) {
+            float from = query.getYearFrom() == null ? Float.NEGATIVE_INFINITY : query.getYearFrom();
+            float to = query.getYearTo() == null ? Float.POSITIVE_INFINITY : query.getYearTo();
+            count = filterRange(columns[Column.ANIO.ordinal()], from, to, selection, count);
+        }
+        if (query.getMinCriticScore() != null) {
+            count = filterRange(columns[Column.PUNTAJE_CRITICA.ordinal()], query.getMinCriticScore(),
+                Float.POSITIVE_INFINITY, selection, count);
+        }
+
+        // Los valores ausentes van al final
+        float[] sortColumn = columns[query.getSortBy().ordinal()];
+        TopKSelector selector = new TopKSelector(query.getLimit());
+        for (int i = 0; i < count; i++) {
+            float value = sortColumn[selection[i]];
+            selector.offer(selection[i], Float.isNaN(value) ? Double.NEGATIVE_INFINITY : value);
+        }
+        return selector.drainKeys();
+    }
+
+    // Sin valor no filtra; un valor que no está en el diccionario no deja ninguna fila
+    private static int filterCode(short[] codes, StringDictionary dictionary, String value, int[] selection, int count) {
+        if (value == null) {
+            return count;
+        }
+        int code = dictionary.find(value);
+        if (code < 0) {
+            return 0;
+        }
+        // La escritura nunca adelanta a la lectura, así que se compacta en el mismo arreglo
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = selection[i];
+            selection[kept] = row;
+            kept += codes[row] == code ? 1 : 0;
+        }
+        return kept;
+    }
+
+    // NaN no cumple ninguna comparación, así que las filas sin dato quedan fuera
+    private static int filterRange(float[] column, float min, float max, int[] selection, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = selection[i];
+            float value = column[row];
+            selection[kept] = row;
+            kept += value >= min & value <= max ? 1 : 0;
+        }
+        return kept;
+    }
+
+    public int gameCount() {return rows;}
+    public String gameIdAt(int row) {return gameIds[row];}
+    public String gameNameAt(int row) {return gameNames[row];}
+
+    // -1 si el juego no está en el catálogo
+    public int rowOf(String gameId) {
+        Integer row = rowByGameId.get(gameId);
+        return row == null ? -1 : row;
+    }
+
+    public float value(Column column, int row) {
+        return columns[column.ordinal()][row];
+    }
+
+    public String genreAt(int row) {return genreCodes[row] < 0 ? null : genres.valueOf(genreCodes[row]);}
+    public String platformAt(int row) {return platforms.valueOf(platformCodes[row]);}
+    public String publisherAt(int row) {return publisherCodes[row] < 0 ? null : publishers.valueOf(publisherCodes[row]);}
+
+    // Filas con puntaje de crítica tras la unión con video_games.csv
+    public int criticScoreCount() {
+        int count = 0;
+        for (float score : columns[Column.PUNTAJE_CRITICA.ordinal()]) {
+            count += Float.isNaN(score) ? 0 : 1;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example;
+
+import java.time.Duration;
+
+// Parámetros del pool de conexiones y de ejecución del driver de Neo4j
+public class ConnectionPoolSettings {
+    private int maxConnectionPoolSize = 50;
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(30);
+    private long fetchSize = 1000;
+    private Duration maxTransactionRetryTime = Duration.ofSeconds(15);
+
+    public ConnectionPoolSettings() {
+    }
+
+    public ConnectionPoolSettings(int maxConnectionPoolSize, Duration connectionAcquisitionTimeout,
+                                  long fetchSize, Duration maxTransactionRetryTime) {
+        this.maxConnectionPoolSize = maxConnectionPoolSize;
+        this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;
+        this.fetchSize = fetchSize;
+        this.maxTransactionRetryTime = maxTransactionRetryTime;
+    }
+
+    // Getters y setters
+    public int getMaxConnectionPoolSize() {return maxConnectionPoolSize;}
+    public void setMaxConnectionPoolSize(int maxConnectionPoolSize) {this.maxConnectionPoolSize = maxConnectionPoolSize;}
+
+    public Duration getConnectionAcquisitionTimeout() {return connectionAcquisitionTimeout;}
+    public void setConnectionAcquisitionTimeout(Duration connectionAcquisitionTimeout) {this.connectionAcquisitionTimeout = connectionAcquisitionTimeout;}
+
+    public long getFetchSize() {return fetchSize;}
+    public void setFetchSize(long fetchSize) {this.fetchSize = fetchSize;}
+
+    public Duration getMaxTransactionRetryTime() {return maxTransactionRetryTime;}
+    public void setMaxTransactionRetryTime(Duration maxTransactionRetryTime) {this.maxTransactionRetryTime = maxTransactionRetryTime;}
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolSettings{" +
+                "maxConnectionPoolSize=" + maxConnectionPoolSize +
+                ", connectionAcquisitionTimeout=" + connectionAcquisitionTimeout +
+                ", fetchSize=" + fetchSize +
+                ", maxTransactionRetryTime=" + maxTransactionRetryTime +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.example;
+
+// Contadores del pool de conexiones en un instante dado
+public class ConnectionPoolStats {
+    private final long sessionsOpened;
+    private final long sessionsClosed;
+    private final int connectionsInUse;
+    private final int connectionsIdle;
+    private final int acquiring;
+    private final long acquired;
+    private final long timedOutToAcquire;
+    private final long totalAcquisitionTimeMillis;
+
+    public ConnectionPoolStats(long sessionsOpened, long sessionsClosed, int connectionsInUse, int connectionsIdle,
+                               int acquiring, long acquired, long timedOutToAcquire, long totalAcquisitionTimeMillis) {
+        this.sessionsOpened = sessionsOpened;
+        this.sessionsClosed = sessionsClosed;
+        this.connectionsInUse = connectionsInUse;
+        this.connectionsIdle = connectionsIdle;
+        this.acquiring = acquiring;
+        this.acquired = acquired;
+        this.timedOutToAcquire = timedOutToAcquire;
+        this.totalAcquisitionTimeMillis = totalAcquisitionTimeMillis;
+    }
+
+    public long getSessionsOpened() {return sessionsOpened;}
+    public long getSessionsClosed() {return sessionsClosed;}
+    public long getSessionsActive() {return sessionsOpened - sessionsClosed;}
+    public int getConnectionsInUse() {return connectionsInUse;}
+    public int getConnectionsIdle() {return connectionsIdle;}
+    public int getAcquiring() {return acquiring;}
+    public long getAcquired() {return acquired;}
+    public long getTimedOutToAcquire() {return timedOutToAcquire;}
+    public long getTotalAcquisitionTimeMillis() {return totalAcquisitionTimeMillis;}
+
+    public double getAverageAcquisitionTimeMillis() {
+        return acquired == 0 ? 0 : (double) totalAcquisitionTimeMillis / acquired;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "sesionesActivas=" + getSessionsActive() +
+                ", enUso=" + connectionsInUse +
+                ", inactivas=" + connectionsIdle +
+                ", esperando=" + acquiring +
+                ", adquiridas=" + acquired +
+                ", timeouts=" + timedOutToAcquire +
+                ", esperaPromedioMs=" + String.format("%.2f", getAverageAcquisitionTimeMillis()) +
+                '}';
+    }
+}
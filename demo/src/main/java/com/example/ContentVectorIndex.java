@@ -0,0 +1,238 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Recomendador de contenido en memoria: cada juego de vgsales.csv es un vector float de ancho fijo
+//   [géneros one-hot | plataformas one-hot | publicadores one-hot (los más frecuentes + "otros") |
+//    año normalizado | log(1 + ventas) NA, EU, JP, otras y globales normalizadas]
+// Todos los vectores viven seguidos en un único float[] y se guardan con norma 1,
+// así que el coseno es un producto punto. La búsqueda es un recorrido completo por bloques.
+public final class ContentVectorIndex {
+    public static final int DEFAULT_PUBLISHERS = 64;
+    // Filas por tarea; por debajo de esto el recorrido se hace en el hilo que llama
+    static final int ROWS_PER_TASK = 8192;
+
+    // Peso de cada grupo de rasgos antes de normalizar
+    static final float GENRE_WEIGHT = 1.0f;
+    static final float PLATFORM_WEIGHT = 0.7f;
+    static final float PUBLISHER_WEIGHT = 0.7f;
+    static final float YEAR_WEIGHT = 0.5f;
+    static final float SALES_WEIGHT = 0.4f;
+
+    private final String[] gameIds;
+    private final String[] gameNames;
+    private final Map<String, Integer> rowByGameId;
+    private final int dimensions;
+    private final float[] vectors;
+    private final ForkJoinPool pool;
+
+    private ContentVectorIndex(String[] gameIds, String[] gameNames, int dimensions, float[] vectors, ForkJoinPool pool) {
+        this.gameIds = gameIds;
+        this.gameNames = gameNames;
+        this.dimensions = dimensions;
+        this.vectors = vectors;
+        this.pool = pool;
+        this.rowByGameId = new HashMap<>(gameIds.length * 2);
+        for (int row = 0; row < gameIds.length; row++) {
+            rowByGameId.put(gameIds[row], row);
+        }
+    }
+
+    // Lee vgsales.csv (el de los recursos si path es null)
+    public static ContentVectorIndex load(String path) throws IOException {
+        return build(VgSalesReader.readAll(path), DEFAULT_PUBLISHERS, ForkJoinPool.commonPool());
+    }
+
+    public static ContentVectorIndex build(List<VgSalesRecord> records, int publisherSlots, ForkJoinPool pool) {
+        StringDictionary genres = new StringDictionary();
+        StringDictionary platforms = new StringDictionary();
+        int minYear = Integer.MAX_VALUE;
+        int maxYear = Integer.MIN_VALUE;
+        double[] maxLogSales = new double[5];
+        Map<String, Integer> publisherCounts = new HashMap<>();
+        for (VgSalesRecord record : records) {
+            if (record.getGenero() != null) {
+                genres.idOf(record.getGenero());
+            }
+            platforms.idOf(record.getPlataforma());
+            if (record.getPublicador() != null) {
+                publisherCounts.merge(record.getPublicador(), 1, Integer::sum);
+            }
+            if (record.getAnio() != null) {
+                minYear = Math.min(minYear, record.getAnio());
+                maxYear = Math.max(maxYear, record.getAnio());
+            }
+            double[] sales = logSales(record);
+            for (int i = 0; i < sales.length; i++) {
+                maxLogSales[i] = Math.max(maxLogSales[i], sales[i]);
+            }
+        }
+
+        // Solo los publicadores más frecuentes tienen columna propia; el resto comparte "otros"
+        StringDictionary publishers = new StringDictionary();
+        publisherCounts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(publisherSlots)
+            .forEach(entry -> publishers.idOf(entry.getKey()));
+
+        int genreOffset = 0;
+        int platformOffset = genreOffset + genres.size();
+        int publisherOffset = platformOffset + platforms.size();
+        int otherPublisher = publisherOffset + publishers.size();
+        int yearOffset = otherPublisher + 1;
+        int salesOffset = yearOffset + 1;
+        // Ancho múltiplo de 8: el producto punto se desenrolla sin resto y cada fila queda alineada
+        int dimensions = (salesOffset + maxLogSales.length + 7) & ~7;
+
+        String[] gameIds = new String[records.size()];
+        String[] gameNames = new String[records.size()];
+        float[] vectors = new float[records.size() * dimensions];
+        for (int row = 0; row < records.size(); row++) {
+            VgSalesRecord record = records.get(row);
+            gameIds[row] = record.getId();
+            gameNames[row] = record.getNombre();
+            int base = row * dimensions;
+
+            if (record.getGenero() != null) {
+                vectors[base + genreOffset + genres.find(record.getGenero())] = GENRE_WEIGHT;
+            }
+            vectors[base + platformOffset + platforms.find(record.getPlataforma())] = PLATFORM_WEIGHT;
+            if (record.getPublicador() != null) {
+                int publisher = publishers.find(record.getPublicador());
+                vectors[base + (publisher >= 0 ? publisherOffset + publisher : otherPublisher)] = PUBLISHER_WEIGHT;
+            }
+            // Sin año se usa el punto medio para no acercarlo a ningún extremo
+            float year = record.getAnio() == null || maxYear == minYear
+                ? 0.5f
+                : (float) (record.getAnio() - minYear) / (maxYear - minYear);
+            vectors[base + yearOffset] = YEAR_WEIGHT * year;
+            double[] sales = logSales(record);
+            for (int i = 0; i < sales.length; i++) {
+                vectors[base + salesOffset + i] = maxLogSales[i] == 0 ? 0 : (float) (SALES_WEIGHT * sales[i] / maxLogSales[i]);
+            }
+            normalize(vectors, base, dimensions);
+        }
+        return new ContentVectorIndex(gameIds, gameNames, dimensions, vectors, pool);
+    }
+
+    private static double[] logSales(VgSalesRecord record) {
+        return new double[] {
+            Math.log1p(record.getVentasNA()),
+            Math.log1p(record.getVentasEU()),
+            Math.log1p(record.getVentasJP()),
+            Math.log1p(record.getVentasOtras()),
+            Math.log1p(record.getVentasGlobales())
+        };
+    }
+
+    private static void normalize(float[] vectors, int base, int dimensions) {
+        double norm = 0;
+        for (int d = 0; d < dimensions; d++) {
+            norm += vectors[base + d] * vectors[base + d];
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < dimensions; d++) {
+            vectors[base + d] *= scale;
+        }
+    }
+
+    // "Más como este": los k juegos con mayor coseno, sin contar el propio juego
+    public List<Recomendacion> recommendGamesLike(String gameId, int maxRecommendations) {
+        Integer row = rowByGameId.get(gameId);
+        if (row == null) {
+            return Collections.emptyList();
+        }
+        TopKSelector selector = search(row, maxRecommendations);
+        int[] rows = new int[selector.size()];
+        double[] scores = new double[selector.size()];
+        int count = selector.drainInto(rows, scores);
+
+        List<Recomendacion> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recommendations.add(new Recomendacion(
+                gameIds[rows[i]],
+                gameNames[rows[i]],
+                (int) Math.round(scores[i] * 100), // Coseno en escala 0-100
+                Recomendacion.TipoRecomendacion.PERSONAL));
+        }
+        return recommendations;
+    }
+
+    TopKSelector search(int queryRow, int k) {
+        int rows = gameIds.length;
+        if (rows <= ROWS_PER_TASK) {
+            TopKSelector selector = new TopKSelector(k);
+            scan(queryRow, 0, rows, selector);
+            return selector;
+        }
+        return pool.invoke(new ScanTask(queryRow, k, 0, rows));
+    }
+
+    // Recorre las filas [from, to) en orden de memoria; la fila consultada se queda en caché
+    private void scan(int queryRow, int from, int to, TopKSelector selector) {
+        int queryBase = queryRow * dimensions;
+        for (int row = from; row < to; row++) {
+            if (row == queryRow) {
+                continue;
+            }
+            int base = row * dimensions;
+            // Cuatro acumuladores independientes para no encadenar cada suma con la anterior
+            float dot0 = 0;
+            float dot1 = 0;
+            float dot2 = 0;
+            float dot3 = 0;
+            for (int d = 0; d < dimensions; d += 4) {
+                dot0 += vectors[queryBase + d] * vectors[base + d];
+                dot1 += vectors[queryBase + d + 1] * vectors[base + d + 1];
+                dot2 += vectors[queryBase + d + 2] * vectors[base + d + 2];
+                dot3 += vectors[queryBase + d + 3] * vectors[base + d + 3];
+            }
+            selector.offer(row, (dot0 + dot1) + (dot2 + dot3));
+        }
+    }
+
+    // Divide el rango hasta ROWS_PER_TASK filas; cada mitad devuelve su top-k y se fusionan
+    private final class ScanTask extends RecursiveTask<TopKSelector> {
+        private final int queryRow;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        private ScanTask(int queryRow, int k, int from, int to) {
+            this.queryRow = queryRow;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopKSelector compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                TopKSelector selector = new TopKSelector(k);
+                scan(queryRow, from, to, selector);
+                return selector;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(queryRow, k, from, middle);
+            left.fork();
+            TopKSelector merged = new ScanTask(queryRow, k, middle, to).compute();
+            TopKSelector other = left.join();
+            int[] rows = new int[other.size()];
+            double[] scores = new double[other.size()];
+            int count = other.drainInto(rows, scores);
+            for (int i = 0; i < count; i++) {
+                merged.offer(rows[i], scores[i]);
+            }
+            return merged;
+        }
+    }
+
+    public int gameCount() {return gameIds.length;}
+    public int getDimensions() {return dimensions;}
+}
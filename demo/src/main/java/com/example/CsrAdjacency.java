@@ -0,0 +1,70 @@
+package com.example;
+
+import java.util.Arrays;
+
+// Lista de adyacencia en formato CSR (compressed sparse row) sobre ids enteros densos.
+// Los vecinos del nodo v están en targets[offsets[v] .. offsets[v + 1]).
+public final class CsrAdjacency {
+    private final int[] offsets;
+    private final int[] targets;
+
+    private CsrAdjacency(int[] offsets, int[] targets) {
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    public int start(int node) {return offsets[node];}
+    public int end(int node) {return offsets[node + 1];}
+    public int target(int position) {return targets[position];}
+    public int degree(int node) {return offsets[node + 1] - offsets[node];}
+    public int nodeCount() {return offsets.length - 1;}
+    public int edgeCount() {return targets.length;}
+
+    public int[] neighbors(int node) {
+        return Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+    }
+
+    // Acumula aristas y construye el CSR con un counting sort por nodo origen
+    public static final class Builder {
+        private final int nodeCount;
+        private int[] sources = new int[1024];
+        private int[] destinations = new int[1024];
+        private int size;
+
+        public Builder(int nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        public void addEdge(int source, int destination) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                destinations = Arrays.copyOf(destinations, size * 2);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            size++;
+        }
+
+        public CsrAdjacency build() {
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            int[] targets = new int[size];
+            for (int i = 0; i < size; i++) {
+                targets[cursor[sources[i]]++] = destinations[i];
+            }
+
+            // Vecinos ordenados para recorridos deterministas
+            for (int v = 0; v < nodeCount; v++) {
+                Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            }
+            return new CsrAdjacency(offsets, targets);
+        }
+    }
+}
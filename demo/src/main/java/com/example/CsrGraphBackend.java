@@ -0,0 +1,287 @@
+package com.example;
+
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Backend en memoria: FRIENDS_WITH, LIKES y PLAYED cargados como arreglos CSR de enteros.
+// Las recomendaciones colaborativas se calculan en proceso sin consultar a Neo4j.
+public class CsrGraphBackend implements GraphBackend {
+    private final String[] userIds;
+    private final String[] gameIds;
+    private final String[] gameNames;
+    private final Map<String, Integer> userIndex;
+
+    private final CsrAdjacency friends;   // usuario -> usuario
+    private final CsrAdjacency likes;     // usuario -> juego
+    private final CsrAdjacency likedBy;   // juego -> usuario
+    private final CsrAdjacency played;    // usuario -> juego
+
+    public CsrGraphBackend(String[] userIds, String[] gameIds, String[] gameNames,
+                           CsrAdjacency friends, CsrAdjacency likes, CsrAdjacency likedBy, CsrAdjacency played) {
+        this.userIds = userIds;
+        this.gameIds = gameIds;
+        this.gameNames = gameNames;
+        this.friends = friends;
+        this.likes = likes;
+        this.likedBy = likedBy;
+        this.played = played;
+
+        this.userIndex = new HashMap<>(userIds.length * 2);
+        for (int i = 0; i < userIds.length; i++) {
+            userIndex.put(userIds[i], i);
+        }
+    }
+
+    // Carga el grafo completo desde Neo4j. Los ids se ordenan para que el orden entero
+    // coincida con el orden de los ids en texto.
+    public static CsrGraphBackend load(Neo4jConnectionManager connectionManager) {
+        List<String> userIdList = connectionManager.readList(CypherQueries.CSR_USER_IDS_QUERY,
+            record -> record.get("id").asString());
+        Collections.sort(userIdList);
+        String[] userIds = userIdList.toArray(new String[0]);
+
+        List<String[]> games = connectionManager.readList(CypherQueries.CSR_GAMES_QUERY,
+            record -> new String[] {record.get("id").asString(), record.get("nombre").asString("")});
+        games.sort(Comparator.comparing(game -> game[0]));
+
+        String[] gameIds = new String[games.size()];
+        String[] gameNames = new String[games.size()];
+        Map<String, Integer> gameIndex = new HashMap<>(games.size() * 2);
+        for (int i = 0; i < games.size(); i++) {
+            gameIds[i] = games.get(i)[0];
+            gameNames[i] = games.get(i)[1];
+            gameIndex.put(gameIds[i], i);
+        }
+        Map<String, Integer> userIndex = new HashMap<>(userIds.length * 2);
+        for (int i = 0; i < userIds.length; i++) {
+            userIndex.put(userIds[i], i);
+        }
+
+        CsrAdjacency friends = loadEdges(connectionManager, CypherQueries.CSR_FRIENDS_QUERY,
+            userIndex, userIndex, false)[0];
+
+        CsrAdjacency[] likes = loadEdges(connectionManager, CypherQueries.CSR_LIKES_QUERY,
+            userIndex, gameIndex, true);
+
+        CsrAdjacency played = loadEdges(connectionManager, CypherQueries.CSR_PLAYED_QUERY,
+            userIndex, gameIndex, false)[0];
+
+        return new CsrGraphBackend(userIds, gameIds, gameNames, friends, likes[0], likes[1], played);
+    }
+
+    // Devuelve la adyacencia directa y, si se pide, también la inversa
+    private static CsrAdjacency[] loadEdges(Neo4jConnectionManager connectionManager, String query,
+                                            Map<String, Integer> sourceIndex, Map<String, Integer> targetIndex,
+                                            boolean withReverse) {
+        return connectionManager.executeRead(connectionManager.getMetrics().nameOf(query), tx -> {
+            CsrAdjacency.Builder forward = new CsrAdjacency.Builder(sourceIndex.size());
+            CsrAdjacency.Builder reverse = new CsrAdjacency.Builder(targetIndex.size());
+            Result result = tx.run(query);
+            while (result.hasNext()) {
+                Record record = result.next();
+                Integer source = sourceIndex.get(record.get("source").asString(null));
+                Integer target = targetIndex.get(record.get("target").asString(null));
+                if (source == null || target == null) {
+                    continue;
+                }
+                forward.addEdge(source, target);
+                if (withReverse) {
+                    reverse.addEdge(target, source);
+                }
+            }
+            return withReverse
+                ? new CsrAdjacency[] {forward.build(), reverse.build()}
+                : new CsrAdjacency[] {forward.build()};
+        });
+    }
+
+    @Override
+    public List<Recomendacion> recommendGamesByFriends(String userId, int maxRecommendations) {
+        Integer user = userIndex.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        boolean[] excluded = userGames(user);
+
+        // Juegos que gustan a amigos directos
+        ScoreAccumulator scores = new ScoreAccumulator(gameIds.length);
+        for (int f = friends.start(user); f < friends.end(user); f++) {
+            int friend = friends.target(f);
+            for (int l = likes.start(friend); l < likes.end(friend); l++) {
+                int game = likes.target(l);
+                if (!excluded[game]) {
+                    scores.add(game, 1);
+                }
+            }
+        }
+
+        // Si hay pocas recomendaciones, buscar con amigos de amigos
+        if (scores.size() < maxRecommendations) {
+            boolean[] skipUser = new boolean[userIds.length];
+            skipUser[user] = true;
+            for (int f = friends.start(user); f < friends.end(user); f++) {
+                skipUser[friends.target(f)] = true;
+            }
+
+            ScoreAccumulator fofCounts = new ScoreAccumulator(gameIds.length);
+            for (int f = friends.start(user); f < friends.end(user); f++) {
+                int friend = friends.target(f);
+                for (int ff = friends.start(friend); ff < friends.end(friend); ff++) {
+                    int friendOfFriend = friends.target(ff);
+                    if (skipUser[friendOfFriend]) {
+                        continue;
+                    }
+                    skipUser[friendOfFriend] = true; // DISTINCT friendOfFriend
+                    for (int l = likes.start(friendOfFriend); l < likes.end(friendOfFriend); l++) {
+                        int game = likes.target(l);
+                        if (!excluded[game]) {
+                            fofCounts.add(game, 1);
+                        }
+                    }
+                }
+            }
+
+            // Equivale a recorrer fofCount DESC hasta juntar maxRecommendations * 2 candidatos:
+            // los juegos nuevos entran por top-K y los que ya venían de amigos directos solo suman
+            // si quedan por delante del último juego nuevo aceptado
+            TopKSelector newGames = new TopKSelector(maxRecommendations * 2 - scores.size());
+            for (int i = 0; i < fofCounts.size(); i++) {
+                int game = fofCounts.keyAt(i);
+                if (!scores.contains(game)) {
+                    newGames.offer(game, fofCounts.get(game));
+                }
+            }
+            for (int i = 0; i < fofCounts.size(); i++) {
+                int game = fofCounts.keyAt(i);
+                if (scores.contains(game) && newGames.beatsWorst(game, fofCounts.get(game))) {
+                    // Peso menor para amigos de amigos
+                    scores.add(game, fofCounts.get(game) / 2);
+                }
+            }
+            for (int game : newGames.drainKeys()) {
+                scores.add(game, fofCounts.get(game) / 2);
+            }
+        }
+
+        return toRecommendations(scores, maxRecommendations);
+    }
+
+    @Override
+    public List<Recomendacion> recommendGamesBySimilarUsers(String userId, int maxRecommendations) {
+        Integer user = userIndex.get(userId);
+        if (user == null) {
+            return Collections.emptyList();
+        }
+        return toRecommendations(similarUserScores(user), maxRecommendations);
+    }
+
+    @Override
+    public RecommendationPage recommendGamesBySimilarUsersPage(String userId, int pageSize, String cursor) {
+        RecommendationPage.Cursor after = RecommendationPage.Cursor.decode(cursor);
+        Integer user = userIndex.get(userId);
+        if (user == null) {
+            return RecommendationPage.of(Collections.emptyList(), pageSize);
+        }
+        return RecommendationPage.of(toRecommendations(similarUserScores(user), pageSize + 1, after), pageSize);
+    }
+
+    private ScoreAccumulator similarUserScores(int user) {
+        boolean[] excluded = userGames(user);
+
+        // Juegos en común con cada otro usuario
+        ScoreAccumulator commonGames = new ScoreAccumulator(userIds.length);
+        for (int l = likes.start(user); l < likes.end(user); l++) {
+            int game = likes.target(l);
+            for (int o = likedBy.start(game); o < likedBy.end(game); o++) {
+                int other = likedBy.target(o);
+                if (other != user) {
+                    commonGames.add(other, 1);
+                }
+            }
+        }
+
+        ScoreAccumulator scores = new ScoreAccumulator(gameIds.length);
+        for (int i = 0; i < commonGames.size(); i++) {
+            int other = commonGames.keyAt(i);
+            for (int l = likes.start(other); l < likes.end(other); l++) {
+                int game = likes.target(l);
+                if (!excluded[game]) {
+                    scores.add(game, commonGames.get(other));
+                }
+            }
+        }
+        return scores;
+    }
+
+    // El cálculo en memoria no hace E/S, así que se resuelve en el hilo que llama
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesByFriendsAsync(String userId, int maxRecommendations) {
+        return CompletableFuture.completedFuture(recommendGamesByFriends(userId, maxRecommendations));
+    }
+
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesBySimilarUsersAsync(String userId, int maxRecommendations) {
+        return CompletableFuture.completedFuture(recommendGamesBySimilarUsers(userId, maxRecommendations));
+    }
+
+    // Juegos que el usuario ya jugó o le gustan
+    boolean[] userGames(int user) {
+        boolean[] excluded = new boolean[gameIds.length];
+        for (int l = likes.start(user); l < likes.end(user); l++) {
+            excluded[likes.target(l)] = true;
+        }
+        for (int p = played.start(user); p < played.end(user); p++) {
+            excluded[played.target(p)] = true;
+        }
+        return excluded;
+    }
+
+    // Los ids están ordenados, así que desempatar por índice es desempatar por id
+    List<Recomendacion> toRecommendations(ScoreAccumulator scores, int maxRecommendations) {
+        return toRecommendations(scores, maxRecommendations, null);
+    }
+
+    // Con cursor solo compiten los juegos posteriores a él; el top-K sigue acotado al tamaño de página
+    List<Recomendacion> toRecommendations(ScoreAccumulator scores, int maxRecommendations, RecommendationPage.Cursor after) {
+        TopKSelector selector = new TopKSelector(maxRecommendations);
+        if (after == null) {
+            scores.offerTo(selector);
+        } else {
+            for (int i = 0; i < scores.size(); i++) {
+                int game = scores.keyAt(i);
+                if (after.precedes(scores.get(game), gameIds[game])) {
+                    selector.offer(game, scores.get(game));
+                }
+            }
+        }
+
+        int[] ordered = selector.drainKeys();
+        List<Recomendacion> recommendations = new ArrayList<>(ordered.length);
+        for (int game : ordered) {
+            recommendations.add(new Recomendacion(
+                gameIds[game],
+                gameNames[game],
+                scores.get(game),
+                Recomendacion.TipoRecomendacion.COLABORATIVA));
+        }
+        return recommendations;
+    }
+
+    public int userCount() {return userIds.length;}
+    public int gameCount() {return gameIds.length;}
+    public CsrAdjacency getFriends() {return friends;}
+    public CsrAdjacency getLikes() {return likes;}
+    public CsrAdjacency getLikedBy() {return likedBy;}
+    public CsrAdjacency getPlayed() {return played;}
+    public String getUserId(int user) {return userIds[user];}
+    public String getGameId(int game) {return gameIds[game];}
+    public String getGameName(int game) {return gameNames[game];}
+
+    public int userIndexOf(String userId) {
+        Integer user = userIndex.get(userId);
+        return user == null ? -1 : user;
+    }
+}
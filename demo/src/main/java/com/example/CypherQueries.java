@@ -0,0 +1,530 @@
+package com.example;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Todas las consultas Cypher de los servicios. Los textos son constantes y lo que cambia entre peticiones
+// (ids, límites, filtros opcionales, cursores) va siempre en parámetros: Neo4j guarda el plan por texto,
+// así que cada consulta se planifica una sola vez. Cada una se registra con parámetros de ejemplo del tipo
+// correcto para que QueryPlanWarmup la precompile al arrancar y QueryPlanGuard revise su plan.
+public final class CypherQueries {
+    // Recomendaciones colaborativas (Neo4jGraphBackend)
+
+    // Juegos que gustan a amigos directos pero que el usuario no ha jugado
+    static final String FRIENDS_QUERY =
+        "MATCH (user:User {id: $userId})-[:FRIENDS_WITH]->(friend:User)-[:LIKES]->(game:Videojuego) " +
+        "WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "RETURN game.id as gameId, game.nombre as gameName, count(friend) as friendCount " +
+        "ORDER BY friendCount DESC, gameId ASC " +
+        "LIMIT $limit";
+
+    // Grado de los amigos directos: COUNT {} sobre un solo tipo de relación se resuelve con el contador
+    // de grado del nodo, sin recorrer las relaciones
+    static final String FRIEND_DEGREES_QUERY =
+        "MATCH (user:User {id: $userId})-[:FRIENDS_WITH]->(friend:User) " +
+        "RETURN count(friend) AS friends, sum(COUNT { (friend)-[:FRIENDS_WITH]->() }) AS twoHopPaths";
+
+    // Plan exacto para vecindarios pequeños
+    static final String FRIENDS_OF_FRIENDS_QUERY =
+        "MATCH (user:User {id: $userId})-[:FRIENDS_WITH]->(:User)-[:FRIENDS_WITH]->(friendOfFriend:User) " +
+        "WHERE NOT (user)-[:FRIENDS_WITH]->(friendOfFriend) AND NOT user = friendOfFriend " +
+        "WITH DISTINCT user, friendOfFriend " +
+        "MATCH (friendOfFriend)-[:LIKES]->(game:Videojuego) " +
+        "WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "RETURN game.id as gameId, game.nombre as gameName, count(friendOfFriend) as fofCount " +
+        "ORDER BY fofCount DESC, gameId ASC " +
+        "LIMIT $limit";
+
+    // Plan acotado para supernodos: solo los $maxIntermediaries amigos de menor grado (los vínculos más
+    // específicos) y como mucho $maxFanOut amigos de cada uno, así el peor caso es
+    // maxIntermediaries * maxFanOut caminos sin importar el tamaño del vecindario
+    static final String CAPPED_FRIENDS_OF_FRIENDS_QUERY =
+        "MATCH (user:User {id: $userId})-[:FRIENDS_WITH]->(friend:User) " +
+        "WITH user, friend, COUNT { (friend)-[:FRIENDS_WITH]->() } AS degree " +
+        "ORDER BY degree ASC, friend.id ASC " +
+        "LIMIT $maxIntermediaries " +
+        "CALL { " +
+        "  WITH friend " +
+        "  MATCH (friend)-[:FRIENDS_WITH]->(candidate:User) " +
+        "  RETURN candidate LIMIT $maxFanOut " +
+        "} " +
+        "WITH DISTINCT user, candidate AS friendOfFriend " +
+        "WHERE NOT (user)-[:FRIENDS_WITH]->(friendOfFriend) AND NOT user = friendOfFriend " +
+        "MATCH (friendOfFriend)-[:LIKES]->(game:Videojuego) " +
+        "WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "RETURN game.id as gameId, game.nombre as gameName, count(friendOfFriend) as fofCount " +
+        "ORDER BY fofCount DESC, gameId ASC " +
+        "LIMIT $limit";
+
+    // Ordena y corta en el servidor: solo viajan las filas de la página. El cursor ($afterScore, $afterGameId)
+    // es la última fila entregada; con $afterScore = null empieza desde el principio.
+    static final String SIMILAR_USERS_QUERY =
+        "MATCH (user:User {id: $userId})-[:LIKES]->(game:Videojuego)<-[:LIKES]-(otherUser:User) " +
+        "WHERE user <> otherUser " +
+        "WITH user, otherUser, count(game) AS commonGames " +
+        "WHERE commonGames > 0 " +
+        "MATCH (otherUser)-[:LIKES]->(rec:Videojuego) " +
+        "WHERE NOT (user)-[:PLAYED|LIKES]->(rec) " +
+        "WITH rec, sum(commonGames) AS score " +
+        "WHERE $afterScore IS NULL OR score < $afterScore OR (score = $afterScore AND rec.id > $afterGameId) " +
+        "RETURN rec.id AS gameId, rec.nombre AS gameName, score " +
+        "ORDER BY score DESC, gameId ASC " +
+        "LIMIT $limit";
+
+    // Recomendaciones personales (PersonalRecommenderService)
+
+    // Cada camino base-atributo-juego suma un punto, igual que el recorrido atributo por atributo.
+    // Solo cuentan los atributos del catálogo y los usuarios que lo jugaron o les gusta (no RECOMMENDED ni
+    // SIMILAR_TO, que son datos derivados), y se descartan las ediciones del mismo título en otras plataformas.
+    static final String SHARED_ATTRIBUTES_QUERY =
+        "MATCH (base:Videojuego {id: $gameId}) " +
+        "OPTIONAL MATCH (base)-[:BELONGS_TO_GENRE|AVAILABLE_ON|DEVELOPED_BY|HAS_FEATURE|LIKES|PLAYED]-(attribute)" +
+        "-[:BELONGS_TO_GENRE|AVAILABLE_ON|DEVELOPED_BY|HAS_FEATURE|LIKES|PLAYED]-(game:Videojuego) " +
+        "WHERE game <> base AND game.nombre <> base.nombre " +
+        "WITH game, count(game) AS score " +
+        "ORDER BY score DESC, game.id ASC " +
+        "LIMIT $limit " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, score";
+
+    // La misma puntuación sumada por título, como la llevaba el bucle original (VideoGameRecommender):
+    // el límite se aplica a títulos, no a ediciones
+    static final String SHARED_ATTRIBUTE_TITLES_QUERY =
+        "MATCH (base:Videojuego {id: $gameId}) " +
+        "OPTIONAL MATCH (base)-[:BELONGS_TO_GENRE|AVAILABLE_ON|DEVELOPED_BY|HAS_FEATURE|LIKES|PLAYED]-(attribute)" +
+        "-[:BELONGS_TO_GENRE|AVAILABLE_ON|DEVELOPED_BY|HAS_FEATURE|LIKES|PLAYED]-(game:Videojuego) " +
+        "WHERE game <> base AND game.nombre <> base.nombre " +
+        "WITH game.nombre AS gameName, count(game) AS score " +
+        "ORDER BY score DESC, gameName ASC " +
+        "LIMIT $limit " +
+        "RETURN gameName, score";
+
+    // Vecinos precalculados por SimilarityJob: un salto desde el juego base, que se busca por índice.
+    // La similitud (0..1) se pasa a la escala entera de Recomendacion.
+    static final String SIMILAR_GAMES_QUERY =
+        "MATCH (base:Videojuego {id: $gameId})-[r:SIMILAR_TO]->(game:Videojuego) " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, toInteger(round(r.score * 100)) AS score " +
+        "ORDER BY r.rank " +
+        "LIMIT $limit";
+
+    static final String USER_GENRES_QUERY =
+        "MATCH (user:User {id: $userId})-[:LIKES]->(game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre) " +
+        "RETURN DISTINCT genre.name as genreName";
+
+    static final String USER_PLATFORMS_QUERY =
+        "MATCH (user:User {id: $userId})-[:LIKES]->(game:Videojuego)-[:AVAILABLE_ON]->(platform:Platform) " +
+        "RETURN DISTINCT platform.name as platformName";
+
+    static final String USER_GAMES_QUERY =
+        "MATCH (user:User {id: $userId})-[:PLAYED|LIKES]->(game:Videojuego) " +
+        "RETURN DISTINCT game.id as gameId";
+
+    static final String GENRE_TOP_QUERY =
+        "MATCH (game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre {name: $genero}) " +
+        "RETURN game.titulo as titulo, game.puntajeCritica as puntaje " +
+        "ORDER BY game.puntajeCritica DESC " +
+        "LIMIT $limit";
+
+    // Juegos que coinciden con las preferencias del usuario. Parte de los géneros por su índice o, si no
+    // tiene géneros, de las plataformas; con ambos el juego además debe estar en alguna plataforma preferida.
+    // Una lista vacía desactiva su filtro, así el texto no depende de qué preferencias tenga el usuario.
+    // Mayor peso a coincidencias de género (2) que de plataforma (1); empates por id de juego.
+    static final String PREFERENCES_QUERY =
+        "CALL { " +
+        "  MATCH (genre:Genre) WHERE genre.name IN $genres " +
+        "  MATCH (genre)<-[:BELONGS_TO_GENRE]-(game:Videojuego) " +
+        "  RETURN game " +
+        "  UNION " +
+        "  MATCH (platform:Platform) WHERE size($genres) = 0 AND platform.name IN $platforms " +
+        "  MATCH (platform)<-[:AVAILABLE_ON]-(game:Videojuego) " +
+        "  RETURN game " +
+        "} " +
+        "WITH game " +
+        "WHERE (size($genres) = 0 OR size($platforms) = 0 " +
+        "       OR EXISTS { (game)-[:AVAILABLE_ON]->(platform:Platform) WHERE platform.name IN $platforms }) " +
+        "  AND NOT game.id IN $userGames " +
+        "WITH game, 2 * COUNT { (game)-[:BELONGS_TO_GENRE]->(genre:Genre) WHERE genre.name IN $genres } " +
+        "  + COUNT { (game)-[:AVAILABLE_ON]->(platform:Platform) WHERE platform.name IN $platforms } AS score " +
+        "WHERE $afterScore IS NULL OR score < $afterScore OR (score = $afterScore AND game.id > $afterGameId) " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, score " +
+        "ORDER BY score DESC, gameId ASC " +
+        "LIMIT $limit";
+
+    // Usuario sin géneros ni plataformas: todos los juegos puntúan 0, así que basta recorrer el índice
+    // de ids en orden desde el cursor y cortar en $limit. Un cursor con puntuación negativa no deja nada.
+    static final String NO_PREFERENCES_QUERY =
+        "MATCH (game:Videojuego) " +
+        "WHERE game.id > CASE WHEN $afterScore IS NULL OR $afterScore > 0 THEN '' " +
+        "                     WHEN $afterScore = 0 THEN $afterGameId END " +
+        "  AND NOT game.id IN $userGames " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, 0 AS score " +
+        "ORDER BY gameId ASC " +
+        "LIMIT $limit";
+
+    // Recomendador híbrido (HybridRecommenderService)
+
+    // Preferencias: cada género (peso 2) y plataforma (peso 1) de sus juegos favoritos que comparte el candidato.
+    // Amigos: cuántos amigos directos tienen el juego en LIKES.
+    // Similares: juegos de los usuarios con más LIKES en común, ponderados por esos juegos en común.
+    static final String HYBRID_QUERY =
+        "MATCH (user:User {id: $userId}) " +
+        "CALL { " +
+        "  WITH user " +
+        "  MATCH (user)-[:LIKES]->(:Videojuego)-[:BELONGS_TO_GENRE|AVAILABLE_ON]->(attribute) " +
+        "  WITH DISTINCT user, attribute " +
+        "  MATCH (attribute)<-[r:BELONGS_TO_GENRE|AVAILABLE_ON]-(game:Videojuego) " +
+        "  WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "  WITH game, sum(CASE type(r) WHEN 'BELONGS_TO_GENRE' THEN 2 ELSE 1 END) AS score " +
+        "  ORDER BY score DESC, game.id ASC LIMIT $candidates " +
+        "  RETURN game, '" + HybridRecommenderService.PREFERENCES + "' AS signal, score " +
+        "  UNION " +
+        "  WITH user " +
+        "  MATCH (user)-[:FRIENDS_WITH]->(friend:User)-[:LIKES]->(game:Videojuego) " +
+        "  WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "  WITH game, count(friend) AS score " +
+        "  ORDER BY score DESC, game.id ASC LIMIT $candidates " +
+        "  RETURN game, '" + HybridRecommenderService.FRIENDS + "' AS signal, score " +
+        "  UNION " +
+        "  WITH user " +
+        "  MATCH (user)-[:LIKES]->(common:Videojuego)<-[:LIKES]-(other:User) " +
+        "  WHERE other <> user " +
+        "  WITH user, other, count(common) AS commonGames " +
+        "  ORDER BY commonGames DESC, other.id ASC LIMIT $similarUsers " +
+        "  MATCH (other)-[:LIKES]->(game:Videojuego) " +
+        "  WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "  WITH game, sum(commonGames) AS score " +
+        "  ORDER BY score DESC, game.id ASC LIMIT $candidates " +
+        "  RETURN game, '" + HybridRecommenderService.SIMILAR_USERS + "' AS signal, score " +
+        "} " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, signal, score";
+
+    // Invalidación de la caché (CachedRecommenderService)
+
+    // Todas reciben los usuarios de un lote de cambios: una consulta por tipo de dependencia y lote
+
+    // Usuarios que tienen a alguno de los usuarios como amigo directo o a dos saltos
+    static final String FRIEND_DEPENDENTS_QUERY =
+        "UNWIND $userIds AS userId " +
+        "MATCH (other:User)-[:FRIENDS_WITH*1..2]->(:User {id: userId}) " +
+        "WHERE other.id <> userId " +
+        "RETURN DISTINCT other.id AS userId";
+
+    // Usuarios que comparten algún LIKES con los usuarios, más los que tienen alguno de $gameIds en LIKES:
+    // tras borrar un LIKES ya no se llega a ellos por el usuario, pero su juego en común acaba de desaparecer
+    static final String SIMILAR_DEPENDENTS_QUERY =
+        "UNWIND $userIds AS userId " +
+        "MATCH (:User {id: userId})-[:LIKES]->(:Videojuego)<-[:LIKES]-(other:User) " +
+        "WHERE other.id <> userId " +
+        "RETURN other.id AS userId " +
+        "UNION " +
+        "UNWIND $gameIds AS gameId " +
+        "MATCH (other:User)-[:LIKES]->(:Videojuego {id: gameId}) " +
+        "RETURN other.id AS userId";
+
+    static final String FOLLOWERS_QUERY =
+        "UNWIND $userIds AS userId " +
+        "MATCH (other:User)-[:FRIENDS_WITH]->(:User {id: userId}) " +
+        "RETURN DISTINCT other.id AS userId";
+
+    static final String CONNECTED_GAMES_QUERY =
+        "UNWIND $userIds AS userId " +
+        "MATCH (:User {id: userId})-[:PLAYED|LIKES]->(game:Videojuego) " +
+        "RETURN DISTINCT game.id AS gameId";
+
+    // Ingesta agrupada (InteractionIngestor)
+
+    // Los usuarios se crean si no existen; los juegos deben estar en el catálogo.
+    // LIKES y PLAYED devuelven las filas cuyo juego no existe: no se escribe nada para ellas
+    static final String INGEST_LIKES_QUERY =
+        "UNWIND $rows AS row " +
+        "OPTIONAL MATCH (game:Videojuego {id: row.targetId}) " +
+        "CALL { WITH row, game WITH row, game WHERE game IS NOT NULL " +
+        "  MERGE (user:User {id: row.userId}) MERGE (user)-[:LIKES]->(game) } " +
+        "WITH row, game WHERE game IS NULL " +
+        "RETURN row.userId AS userId, row.targetId AS targetId";
+
+    static final String INGEST_PLAYED_QUERY =
+        "UNWIND $rows AS row " +
+        "OPTIONAL MATCH (game:Videojuego {id: row.targetId}) " +
+        "CALL { WITH row, game WITH row, game WHERE game IS NOT NULL " +
+        "  MERGE (user:User {id: row.userId}) MERGE (user)-[:PLAYED]->(game) } " +
+        "WITH row, game WHERE game IS NULL " +
+        "RETURN row.userId AS userId, row.targetId AS targetId";
+
+    static final String INGEST_FRIENDS_QUERY =
+        "UNWIND $rows AS row " +
+        "MERGE (user:User {id: row.userId}) " +
+        "MERGE (friend:User {id: row.targetId}) " +
+        "MERGE (user)-[:FRIENDS_WITH]->(friend)";
+
+    // Índice de categorías (CatalogIndexLoader y CatalogIndexRefresher)
+
+    static final String GENRES_QUERY =
+        "MATCH (game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre) " +
+        "RETURN game.id as gameId, game.nombre as gameName, genre.name as name";
+
+    static final String PLATFORMS_QUERY =
+        "MATCH (game:Videojuego)-[:AVAILABLE_ON]->(platform:Platform) " +
+        "RETURN game.id as gameId, game.nombre as gameName, platform.name as name";
+
+    static final String DEVELOPERS_QUERY =
+        "MATCH (game:Videojuego)-[:DEVELOPED_BY]->(developer:Developer) " +
+        "RETURN game.id as gameId, game.nombre as gameName, developer.name as name";
+
+    static final String MULTIPLAYER_QUERY =
+        "MATCH (game:Videojuego)-[:HAS_FEATURE]->(feature:Feature) " +
+        "WHERE feature.name = 'Multiplayer' " +
+        "RETURN game.id as gameId, game.nombre as gameName";
+
+    static final String RATINGS_QUERY =
+        "MATCH (game:Videojuego) WHERE game.rating IS NOT NULL " +
+        "RETURN game.id as gameId, game.nombre as gameName, game.rating as name";
+
+    // Juegos con updatedAt >= $since y todas sus categorías actuales, para reemplazarlas en el índice
+    static final String CHANGES_QUERY =
+        "MATCH (game:Videojuego) WHERE game.updatedAt >= $since " +
+        "OPTIONAL MATCH (game)-[:BELONGS_TO_GENRE]->(genre:Genre) " +
+        "WITH game, collect(DISTINCT genre.name) AS genres " +
+        "OPTIONAL MATCH (game)-[:AVAILABLE_ON]->(platform:Platform) " +
+        "WITH game, genres, collect(DISTINCT platform.name) AS platforms " +
+        "OPTIONAL MATCH (game)-[:DEVELOPED_BY]->(developer:Developer) " +
+        "WITH game, genres, platforms, collect(DISTINCT developer.name) AS developers " +
+        "RETURN game.id AS gameId, game.nombre AS gameName, game.updatedAt AS updatedAt, " +
+        "       genres, platforms, developers, game.rating AS rating, " +
+        "       EXISTS { (game)-[:HAS_FEATURE]->(:Feature {name: 'Multiplayer'}) } AS multiplayer " +
+        "ORDER BY updatedAt";
+
+    static final String LATEST_VERSION_QUERY =
+        "MATCH (game:Videojuego) RETURN count(game) AS games, coalesce(max(game.updatedAt), 0) AS marker";
+
+    // Grafo en memoria (CsrGraphBackend) y modelo de similitud (GameSimilarityModel)
+
+    static final String CSR_USER_IDS_QUERY =
+        "MATCH (user:User) WHERE user.id IS NOT NULL RETURN user.id AS id";
+
+    static final String CSR_GAMES_QUERY =
+        "MATCH (game:Videojuego) WHERE game.id IS NOT NULL RETURN game.id AS id, game.nombre AS nombre";
+
+    static final String CSR_FRIENDS_QUERY =
+        "MATCH (a:User)-[:FRIENDS_WITH]->(b:User) RETURN a.id AS source, b.id AS target";
+
+    static final String CSR_LIKES_QUERY =
+        "MATCH (user:User)-[:LIKES]->(game:Videojuego) RETURN user.id AS source, game.id AS target";
+
+    static final String CSR_PLAYED_QUERY =
+        "MATCH (user:User)-[:PLAYED]->(game:Videojuego) RETURN user.id AS source, game.id AS target";
+
+    static final String MODEL_LIKES_QUERY =
+        "MATCH (user:User)-[:LIKES]->(game:Videojuego) RETURN user.id AS userId, game.id AS gameId";
+
+    // Solo los LIKES de los juegos cambiados, para parchear el modelo en memoria
+    static final String MODEL_GAME_LIKES_QUERY =
+        "UNWIND $gameIds AS gameId " +
+        "MATCH (user:User)-[:LIKES]->(:Videojuego {id: gameId}) " +
+        "RETURN user.id AS userId, gameId";
+
+    // Vecinos precalculados (SimilarityJob)
+
+    static final String WRITE_SIMILAR_QUERY =
+        "UNWIND $rows AS row " +
+        "MATCH (game:Videojuego {id: row.gameId}) " +
+        "CALL { WITH row MATCH (similar:Videojuego {id: row.similarId}) RETURN similar } " +
+        "CREATE (game)-[:SIMILAR_TO {score: row.score, rank: row.rank, actualizadoEn: datetime()}]->(similar)";
+
+    static final String DELETE_SIMILAR_QUERY =
+        "UNWIND $gameIds AS gameId " +
+        "MATCH (:Videojuego {id: gameId})-[r:SIMILAR_TO]->() " +
+        "DELETE r";
+
+    // Juegos que hoy tienen como vecino a alguno de los juegos cambiados
+    static final String INCOMING_SIMILAR_QUERY =
+        "UNWIND $gameIds AS changedId " +
+        "MATCH (game:Videojuego)-[:SIMILAR_TO]->(:Videojuego {id: changedId}) " +
+        "RETURN DISTINCT game.id AS gameId";
+
+    // Cuántos vecinos tiene cada juego y la puntuación del peor
+    static final String NEIGHBOUR_FLOOR_QUERY =
+        "UNWIND $gameIds AS gameId " +
+        "MATCH (game:Videojuego {id: gameId}) " +
+        "OPTIONAL MATCH (game)-[r:SIMILAR_TO]->() " +
+        "RETURN gameId, count(r) AS neighbours, min(r.score) AS floor";
+
+    // Recomendaciones en lote (BatchRecommendationJob)
+
+    static final String BATCH_USER_IDS_QUERY =
+        "MATCH (user:User) WHERE user.id IS NOT NULL RETURN user.id AS userId ORDER BY userId";
+
+    static final String DELETE_RECOMMENDED_QUERY =
+        "UNWIND $userIds AS userId " +
+        "MATCH (:User {id: userId})-[r:RECOMMENDED]->(:Videojuego) " +
+        "DELETE r";
+
+    static final String WRITE_RECOMMENDED_QUERY =
+        "UNWIND $rows AS row " +
+        "MATCH (user:User {id: row.userId}) " +
+        "CALL { WITH row MATCH (game:Videojuego {id: row.gameId}) RETURN game } " +
+        "MERGE (user)-[r:RECOMMENDED {estrategia: row.estrategia}]->(game) " +
+        "SET r.score = row.score, r.rank = row.rank, r.generadoEn = datetime()";
+
+    // Importación de vgsales.csv (VgSalesImporter)
+
+    // vgsales.csv solo trae Publisher; se modela como Developer para que lo usen los mapas de categorías
+    static final String IMPORT_BATCH_QUERY =
+        "UNWIND $rows AS row " +
+        "MERGE (game:Videojuego {id: row.id}) " +
+        "SET game.nombre = row.nombre, game.rank = row.rank, game.anioLanzamiento = row.anio, " +
+        "    game.publicador = row.publicador, game.consola = row.plataforma, " +
+        "    game.ventasNA = row.ventasNA, game.ventasEU = row.ventasEU, game.ventasJP = row.ventasJP, " +
+        "    game.ventasOtras = row.ventasOtras, game.ventas = row.ventasGlobales, game.updatedAt = timestamp() " +
+        "MERGE (platform:Platform {name: row.plataforma}) " +
+        "MERGE (game)-[:AVAILABLE_ON]->(platform) " +
+        "FOREACH (genreName IN CASE WHEN row.genero IS NULL THEN [] ELSE [row.genero] END | " +
+        "    MERGE (genre:Genre {name: genreName}) " +
+        "    MERGE (game)-[:BELONGS_TO_GENRE]->(genre)) " +
+        "FOREACH (developerName IN CASE WHEN row.publicador IS NULL THEN [] ELSE [row.publicador] END | " +
+        "    MERGE (developer:Developer {name: developerName}) " +
+        "    MERGE (game)-[:DEVELOPED_BY]->(developer))";
+
+    // Recomendador de consola (VGRecommender)
+
+    static final String FRIEND_GAME_NAMES_QUERY =
+        "MATCH (user:User {id: $userId})-[:FRIENDS_WITH]->(friend:User)-[:LIKES]->(game:Videojuego) " +
+        "WHERE NOT (user)-[:PLAYED|LIKES]->(game) " +
+        "RETURN game.nombre as gameName, count(friend) as friendCount " +
+        "ORDER BY friendCount DESC, gameName ASC " +
+        "LIMIT $limit";
+
+    static final String GAME_GENRES_BY_NAME_QUERY =
+        "MATCH (game:Videojuego {nombre: $nombre})-[:BELONGS_TO_GENRE]->(genre:Genre) " +
+        "RETURN genre.name as genreName";
+
+    private static final Map<String, RegisteredQuery> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        Value none = Values.parameters();
+        Value user = Values.parameters("userId", "u1");
+        Value userIds = Values.parameters("userIds", List.of("u1", "u2"));
+        Value userPage = Values.parameters("userId", "u1", "limit", 10, "afterScore", null, "afterGameId", null);
+        Value game = Values.parameters("gameId", "1", "limit", 10);
+        Value gameIds = Values.parameters("gameIds", List.of("1", "2"));
+        Value friends = Values.parameters("userId", "u1", "limit", 20, "maxIntermediaries", 50, "maxFanOut", 100);
+        Value interactions = Values.parameters("rows", List.of(Map.of("userId", "u1", "targetId", "1")));
+        Value preferences = Values.parameters("genres", List.of("Sports"), "platforms", List.of("Wii"),
+            "userGames", List.of("1"), "limit", 10, "afterScore", null, "afterGameId", null);
+
+        register("FRIENDS_QUERY", FRIENDS_QUERY, Values.parameters("userId", "u1", "limit", 20));
+        register("FRIEND_DEGREES_QUERY", FRIEND_DEGREES_QUERY, user);
+        register("FRIENDS_OF_FRIENDS_QUERY", FRIENDS_OF_FRIENDS_QUERY, friends);
+        register("CAPPED_FRIENDS_OF_FRIENDS_QUERY", CAPPED_FRIENDS_OF_FRIENDS_QUERY, friends);
+        register("SIMILAR_USERS_QUERY", SIMILAR_USERS_QUERY, userPage);
+        register("SHARED_ATTRIBUTES_QUERY", SHARED_ATTRIBUTES_QUERY, game);
+        register("SHARED_ATTRIBUTE_TITLES_QUERY", SHARED_ATTRIBUTE_TITLES_QUERY, game);
+        register("SIMILAR_GAMES_QUERY", SIMILAR_GAMES_QUERY, game);
+        register("USER_GENRES_QUERY", USER_GENRES_QUERY, user);
+        register("USER_PLATFORMS_QUERY", USER_PLATFORMS_QUERY, user);
+        register("USER_GAMES_QUERY", USER_GAMES_QUERY, user);
+        register("GENRE_TOP_QUERY", GENRE_TOP_QUERY, Values.parameters("genero", "Sports", "limit", 10));
+        register("PREFERENCES_QUERY", PREFERENCES_QUERY, preferences);
+        register("NO_PREFERENCES_QUERY", NO_PREFERENCES_QUERY, preferences);
+        register("HYBRID_QUERY", HYBRID_QUERY, Values.parameters("userId", "u1", "candidates", 200, "similarUsers", 50));
+        register("FRIEND_DEPENDENTS_QUERY", FRIEND_DEPENDENTS_QUERY, userIds);
+        register("SIMILAR_DEPENDENTS_QUERY", SIMILAR_DEPENDENTS_QUERY,
+            Values.parameters("userIds", List.of("u1"), "gameIds", List.of("1")));
+        register("FOLLOWERS_QUERY", FOLLOWERS_QUERY, userIds);
+        register("CONNECTED_GAMES_QUERY", CONNECTED_GAMES_QUERY, userIds);
+        register("INGEST_LIKES_QUERY", INGEST_LIKES_QUERY, interactions);
+        register("INGEST_PLAYED_QUERY", INGEST_PLAYED_QUERY, interactions);
+        register("INGEST_FRIENDS_QUERY", INGEST_FRIENDS_QUERY, interactions);
+        register("CHANGES_QUERY", CHANGES_QUERY, Values.parameters("since", 0L));
+        register("WRITE_SIMILAR_QUERY", WRITE_SIMILAR_QUERY, Values.parameters("rows",
+            List.of(Map.of("gameId", "1", "similarId", "2", "score", 0.5, "rank", 1))));
+        register("DELETE_SIMILAR_QUERY", DELETE_SIMILAR_QUERY, gameIds);
+        register("MODEL_GAME_LIKES_QUERY", MODEL_GAME_LIKES_QUERY, gameIds);
+        register("INCOMING_SIMILAR_QUERY", INCOMING_SIMILAR_QUERY, gameIds);
+        register("NEIGHBOUR_FLOOR_QUERY", NEIGHBOUR_FLOOR_QUERY, gameIds);
+        register("DELETE_RECOMMENDED_QUERY", DELETE_RECOMMENDED_QUERY, Values.parameters("userIds", List.of("u1")));
+        register("WRITE_RECOMMENDED_QUERY", WRITE_RECOMMENDED_QUERY, Values.parameters("rows",
+            List.of(Map.of("userId", "u1", "gameId", "1", "estrategia", "FRIENDS", "score", 1, "rank", 1))));
+        register("IMPORT_BATCH_QUERY", IMPORT_BATCH_QUERY, Values.parameters("rows", List.of()));
+        register("FRIEND_GAME_NAMES_QUERY", FRIEND_GAME_NAMES_QUERY, Values.parameters("userId", "u1", "limit", 10));
+        register("GAME_GENRES_BY_NAME_QUERY", GAME_GENRES_BY_NAME_QUERY, Values.parameters("nombre", "Wii Sports"));
+
+        // Cargas completas a memoria: recorren la etiqueta a propósito y no están en el camino de una petición
+        registerFullScan("GENRES_QUERY", GENRES_QUERY, none);
+        registerFullScan("PLATFORMS_QUERY", PLATFORMS_QUERY, none);
+        registerFullScan("DEVELOPERS_QUERY", DEVELOPERS_QUERY, none);
+        registerFullScan("MULTIPLAYER_QUERY", MULTIPLAYER_QUERY, none);
+        registerFullScan("RATINGS_QUERY", RATINGS_QUERY, none);
+        registerFullScan("LATEST_VERSION_QUERY", LATEST_VERSION_QUERY, none);
+        registerFullScan("CSR_USER_IDS_QUERY", CSR_USER_IDS_QUERY, none);
+        registerFullScan("CSR_GAMES_QUERY", CSR_GAMES_QUERY, none);
+        registerFullScan("CSR_FRIENDS_QUERY", CSR_FRIENDS_QUERY, none);
+        registerFullScan("CSR_LIKES_QUERY", CSR_LIKES_QUERY, none);
+        registerFullScan("CSR_PLAYED_QUERY", CSR_PLAYED_QUERY, none);
+        registerFullScan("MODEL_LIKES_QUERY", MODEL_LIKES_QUERY, none);
+        registerFullScan("BATCH_USER_IDS_QUERY", BATCH_USER_IDS_QUERY, none);
+    }
+
+    private CypherQueries() {
+    }
+
+    private static void register(String name, String query, Value sampleParameters) {
+        REGISTRY.put(name, new RegisteredQuery(name, query, sampleParameters, false));
+    }
+
+    private static void registerFullScan(String name, String query, Value sampleParameters) {
+        REGISTRY.put(name, new RegisteredQuery(name, query, sampleParameters, true));
+    }
+
+    public static Collection<RegisteredQuery> all() {
+        return Collections.unmodifiableCollection(REGISTRY.values());
+    }
+
+    // Las métricas usan el nombre registrado en lugar del texto de la consulta
+    static void registerNames(QueryMetrics metrics) {
+        for (RegisteredQuery query : REGISTRY.values()) {
+            metrics.registerName(query.getQuery(), query.getName());
+        }
+    }
+
+    // Constantes de consulta declaradas aquí que no se registraron (no se precompilan ni se revisan)
+    static List<String> unregistered() {
+        List<String> missing = new ArrayList<>();
+        for (Field field : CypherQueries.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getType() == String.class && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)
+                    && !REGISTRY.containsKey(field.getName())) {
+                missing.add(field.getName());
+            }
+        }
+        return missing;
+    }
+
+    public static final class RegisteredQuery {
+        private final String name;
+        private final String query;
+        private final Value sampleParameters;
+        // Recorre una etiqueta completa a propósito (cargas a memoria)
+        private final boolean fullScan;
+
+        RegisteredQuery(String name, String query, Value sampleParameters, boolean fullScan) {
+            this.name = name;
+            this.query = query;
+            this.sampleParameters = sampleParameters;
+            this.fullScan = fullScan;
+        }
+
+        public String getName() {return name;}
+        public String getQuery() {return query;}
+        public Value getSampleParameters() {return sampleParameters;}
+        public boolean isFullScan() {return fullScan;}
+    }
+}
@@ -0,0 +1,200 @@
+package com.example;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Grafo bipartito juego-rasgo para calcular similitud entre juegos.
+// Los rasgos son los géneros, plataformas y desarrolladores del CatalogIndex y cada usuario que da LIKES;
+// cada tipo de rasgo tiene un peso. La similitud es el Jaccard ponderado:
+//   sim(a, b) = peso de los rasgos compartidos / (peso(a) + peso(b) - peso compartido)
+public final class GameSimilarityModel {
+    public static final int DEFAULT_GENRE_WEIGHT = 3;
+    public static final int DEFAULT_DEVELOPER_WEIGHT = 2;
+    public static final int DEFAULT_PLATFORM_WEIGHT = 1;
+    public static final int DEFAULT_LIKE_WEIGHT = 1;
+
+    // Prefijo del tipo en la clave de cada rasgo; el id entero del rasgo no cambia entre parches
+    private static final String GENRE = "G\t";
+    private static final String PLATFORM = "P\t";
+    private static final String DEVELOPER = "D\t";
+    private static final String USER = "U\t";
+
+    private final CatalogIndex catalogIndex;
+    private final CsrAdjacency gameFeatures;   // juego -> rasgo
+    private final CsrAdjacency featureGames;   // rasgo -> juego
+    private final StringDictionary features;   // clave del rasgo -> id
+    private final int[] typeWeights;           // género, plataforma, desarrollador, like
+    private final int[] featureWeights;
+    private final int[] totalWeights;          // peso de todos los rasgos de cada juego
+
+    private GameSimilarityModel(CatalogIndex catalogIndex, CsrAdjacency gameFeatures, StringDictionary features,
+                                int[] typeWeights) {
+        this.catalogIndex = catalogIndex;
+        this.gameFeatures = gameFeatures;
+        this.features = features;
+        this.typeWeights = typeWeights;
+        this.featureWeights = new int[features.size()];
+        for (int feature = 0; feature < featureWeights.length; feature++) {
+            featureWeights[feature] = weightOf(features.valueOf(feature), typeWeights);
+        }
+
+        CsrAdjacency.Builder transposed = new CsrAdjacency.Builder(features.size());
+        this.totalWeights = new int[catalogIndex.gameCount()];
+        for (int game = 0; game < totalWeights.length; game++) {
+            for (int f = gameFeatures.start(game); f < gameFeatures.end(game); f++) {
+                transposed.addEdge(gameFeatures.target(f), game);
+                totalWeights[game] += featureWeights[gameFeatures.target(f)];
+            }
+        }
+        this.featureGames = transposed.build();
+    }
+
+    // Carga los LIKES del grafo sobre los ids del índice; los juegos fuera del índice se ignoran
+    public static GameSimilarityModel load(Neo4jConnectionManager connectionManager, CatalogIndex catalogIndex) {
+        StringDictionary users = new StringDictionary();
+        CsrAdjacency.Builder likes = new CsrAdjacency.Builder(catalogIndex.gameCount());
+        connectionManager.readEach(CypherQueries.MODEL_LIKES_QUERY,
+            record -> {
+                int game = catalogIndex.gameIndexOf(record.get("gameId").asString(null));
+                String userId = record.get("userId").asString(null);
+                if (game >= 0 && userId != null) {
+                    likes.addEdge(game, users.idOf(userId));
+                }
+            });
+        return build(catalogIndex, likes.build(), users,
+            DEFAULT_GENRE_WEIGHT, DEFAULT_PLATFORM_WEIGHT, DEFAULT_DEVELOPER_WEIGHT, DEFAULT_LIKE_WEIGHT);
+    }
+
+    // gameLikers: juego -> id de usuario en users
+    static GameSimilarityModel build(CatalogIndex catalogIndex, CsrAdjacency gameLikers, StringDictionary users,
+                                     int genreWeight, int platformWeight, int developerWeight, int likeWeight) {
+        StringDictionary features = new StringDictionary();
+        CsrAdjacency.Builder gameFeatures = new CsrAdjacency.Builder(catalogIndex.gameCount());
+        addAttributeFeatures(catalogIndex.getGenres(), GENRE, features, gameFeatures);
+        addAttributeFeatures(catalogIndex.getPlatforms(), PLATFORM, features, gameFeatures);
+        addAttributeFeatures(catalogIndex.getDevelopers(), DEVELOPER, features, gameFeatures);
+        for (int game = 0; game < catalogIndex.gameCount() && game < gameLikers.nodeCount(); game++) {
+            for (int l = gameLikers.start(game); l < gameLikers.end(game); l++) {
+                gameFeatures.addEdge(game, features.idOf(USER + users.valueOf(gameLikers.target(l))));
+            }
+        }
+        return new GameSimilarityModel(catalogIndex, gameFeatures.build(), features,
+            new int[] {genreWeight, platformWeight, developerWeight, likeWeight});
+    }
+
+    private static void addAttributeFeatures(Map<String, RoaringBitmap> bitmaps, String type, StringDictionary features,
+                                             CsrAdjacency.Builder gameFeatures) {
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+            int feature = features.idOf(type + entry.getKey());
+            entry.getValue().forEach((int game) -> gameFeatures.addEdge(game, feature));
+        }
+    }
+
+    // Modelo sobre un índice posterior a este en el que solo cambian las filas de changedGames (y de los
+    // juegos nuevos): sus rasgos se leen del índice nuevo y sus LIKES de likers (juego -> ids de usuario).
+    // Las filas del resto se copian de este modelo, sin volver a leer el grafo.
+    // Devuelve null si el índice renumeró los juegos (recarga completa del catálogo): hace falta load().
+    public GameSimilarityModel patch(CatalogIndex newIndex, Collection<Integer> changedGames,
+                                     Map<Integer, List<String>> likers) {
+        int oldCount = gameCount();
+        if (newIndex.gameCount() < oldCount) {
+            return null;
+        }
+        for (int game = 0; game < oldCount; game++) {
+            if (!catalogIndex.gameIdAt(game).equals(newIndex.gameIdAt(game))) {
+                return null;
+            }
+        }
+
+        Set<Integer> changed = new HashSet<>(changedGames);
+        for (int game = oldCount; game < newIndex.gameCount(); game++) {
+            changed.add(game);
+        }
+        StringDictionary newFeatures = new StringDictionary(features);
+        CsrAdjacency.Builder rows = new CsrAdjacency.Builder(newIndex.gameCount());
+        for (int game = 0; game < oldCount; game++) {
+            if (!changed.contains(game)) {
+                for (int f = gameFeatures.start(game); f < gameFeatures.end(game); f++) {
+                    rows.addEdge(game, gameFeatures.target(f));
+                }
+            }
+        }
+        for (int game : changed) {
+            addAttributeFeatures(newIndex.getGenres(), GENRE, game, newFeatures, rows);
+            addAttributeFeatures(newIndex.getPlatforms(), PLATFORM, game, newFeatures, rows);
+            addAttributeFeatures(newIndex.getDevelopers(), DEVELOPER, game, newFeatures, rows);
+            for (String userId : likers.getOrDefault(game, List.of())) {
+                rows.addEdge(game, newFeatures.idOf(USER + userId));
+            }
+        }
+        return new GameSimilarityModel(newIndex, rows.build(), newFeatures, typeWeights);
+    }
+
+    private static void addAttributeFeatures(Map<String, RoaringBitmap> bitmaps, String type, int game,
+                                             StringDictionary features, CsrAdjacency.Builder gameFeatures) {
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+            if (entry.getValue().contains(game)) {
+                gameFeatures.addEdge(game, features.idOf(type + entry.getKey()));
+            }
+        }
+    }
+
+    private static int weightOf(String featureKey, int[] typeWeights) {
+        switch (featureKey.substring(0, 2)) {
+            case GENRE:
+                return typeWeights[0];
+            case PLATFORM:
+                return typeWeights[1];
+            case DEVELOPER:
+                return typeWeights[2];
+            default:
+                return typeWeights[3];
+        }
+    }
+
+    // Peso compartido con cada juego que tiene algún rasgo en común con game.
+    // scratch se limpia al empezar; cada hilo debe usar el suyo.
+    public void sharedWeights(int game, ScoreAccumulator scratch) {
+        scratch.clear();
+        for (int f = gameFeatures.start(game); f < gameFeatures.end(game); f++) {
+            int feature = gameFeatures.target(f);
+            int weight = featureWeights[feature];
+            for (int g = featureGames.start(feature); g < featureGames.end(feature); g++) {
+                int other = featureGames.target(g);
+                if (other != game) {
+                    scratch.add(other, weight);
+                }
+            }
+        }
+    }
+
+    public double similarity(int game, int other, int sharedWeight) {
+        int union = totalWeights[game] + totalWeights[other] - sharedWeight;
+        return union == 0 ? 0 : (double) sharedWeight / union;
+    }
+
+    // Los k juegos más parecidos; a igual similitud gana el id de juego menor.
+    // Las ediciones del mismo título en otras plataformas comparten casi todo y no cuentan como vecinos.
+    public TopKSelector topSimilar(int game, int k, ScoreAccumulator scratch) {
+        sharedWeights(game, scratch);
+        TopKSelector selector = new TopKSelector(k,
+            (a, b) -> catalogIndex.gameIdAt(a).compareTo(catalogIndex.gameIdAt(b)));
+        String name = catalogIndex.gameNameAt(game);
+        for (int i = 0; i < scratch.size(); i++) {
+            int other = scratch.keyAt(i);
+            if (name != null && name.equals(catalogIndex.gameNameAt(other))) {
+                continue;
+            }
+            selector.offer(other, similarity(game, other, scratch.get(other)));
+        }
+        return selector;
+    }
+
+    public CatalogIndex getCatalogIndex() {return catalogIndex;}
+    public int gameCount() {return catalogIndex.gameCount();}
+}
@@ -0,0 +1,23 @@
+package com.example;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Backend de grafo usado por CollaborativeRecommenderService.
+// Permite cambiar entre las consultas Cypher en Neo4j y el grafo CSR en memoria.
+public interface GraphBackend {
+
+    // Juegos que gustan a amigos (y amigos de amigos) que el usuario no ha jugado
+    List<Recomendacion> recommendGamesByFriends(String userId, int maxRecommendations);
+
+    // Juegos que gustan a usuarios con gustos en común
+    List<Recomendacion> recommendGamesBySimilarUsers(String userId, int maxRecommendations);
+
+    // Página de recomendaciones por usuarios similares posterior al cursor (null para la primera)
+    RecommendationPage recommendGamesBySimilarUsersPage(String userId, int pageSize, String cursor);
+
+    // Variantes asíncronas; un backend en memoria puede devolver un futuro ya completado
+    CompletableFuture<List<Recomendacion>> recommendGamesByFriendsAsync(String userId, int maxRecommendations);
+
+    CompletableFuture<List<Recomendacion>> recommendGamesBySimilarUsersAsync(String userId, int maxRecommendations);
+}
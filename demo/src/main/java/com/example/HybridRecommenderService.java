@@ -0,0 +1,147 @@
+package com.example;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Recomendador híbrido: reúne en una sola consulta (una transacción de lectura, un viaje a Neo4j)
+// las señales de preferencias, amigos y usuarios similares, cada una en su subconsulta CALL {}.
+// Las puntuaciones de cada señal no son comparables entre sí, así que se normalizan por el máximo
+// de su señal (0..1) y se combinan con pesos configurables.
+public class HybridRecommenderService {
+    public static final double DEFAULT_PREFERENCES_WEIGHT = 0.4;
+    public static final double DEFAULT_FRIENDS_WEIGHT = 0.35;
+    public static final double DEFAULT_SIMILAR_USERS_WEIGHT = 0.25;
+    // Candidatos por señal y vecinos considerados para la señal de usuarios similares
+    public static final int DEFAULT_CANDIDATES_PER_SIGNAL = 200;
+    public static final int DEFAULT_SIMILAR_USERS = 50;
+
+    static final String PREFERENCES = "PREFERENCIAS";
+    static final String FRIENDS = "AMIGOS";
+    static final String SIMILAR_USERS = "SIMILARES";
+
+    private final Neo4jConnectionManager connectionManager;
+    private final Map<String, Double> weights;
+    private final int candidatesPerSignal;
+    private final int similarUsers;
+
+    public HybridRecommenderService(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_PREFERENCES_WEIGHT, DEFAULT_FRIENDS_WEIGHT, DEFAULT_SIMILAR_USERS_WEIGHT,
+            DEFAULT_CANDIDATES_PER_SIGNAL, DEFAULT_SIMILAR_USERS);
+    }
+
+    public HybridRecommenderService(Neo4jConnectionManager connectionManager, double preferencesWeight,
+                                    double friendsWeight, double similarUsersWeight,
+                                    int candidatesPerSignal, int similarUsers) {
+        if (preferencesWeight < 0 || friendsWeight < 0 || similarUsersWeight < 0
+                || preferencesWeight + friendsWeight + similarUsersWeight == 0) {
+            throw new IllegalArgumentException("Los pesos no pueden ser negativos y al menos uno debe ser positivo");
+        }
+        if (candidatesPerSignal <= 0 || similarUsers <= 0) {
+            throw new IllegalArgumentException("candidatesPerSignal y similarUsers deben ser positivos");
+        }
+        this.connectionManager = connectionManager;
+        this.weights = Map.of(
+            PREFERENCES, preferencesWeight,
+            FRIENDS, friendsWeight,
+            SIMILAR_USERS, similarUsersWeight);
+        this.candidatesPerSignal = candidatesPerSignal;
+        this.similarUsers = similarUsers;
+    }
+
+    public List<Recomendacion> recommendGames(String userId, int maxRecommendations) {
+        return connectionManager.getMetrics().time("recomendador.hibrido",
+            () -> fuse(connectionManager.readList(CypherQueries.HYBRID_QUERY, parameters(userId), HybridRecommenderService::toSignalRow),
+                maxRecommendations));
+    }
+
+    public CompletableFuture<List<Recomendacion>> recommendGamesAsync(String userId, int maxRecommendations) {
+        return connectionManager.getMetrics().timeAsync("recomendador.hibridoAsync",
+            () -> connectionManager.readListAsync(CypherQueries.HYBRID_QUERY, parameters(userId), HybridRecommenderService::toSignalRow)
+                .thenApply(rows -> fuse(rows, maxRecommendations)));
+    }
+
+    private Value parameters(String userId) {
+        return Values.parameters("userId", userId, "candidates", candidatesPerSignal, "similarUsers", similarUsers);
+    }
+
+    private static SignalRow toSignalRow(Record record) {
+        return new SignalRow(
+            record.get("gameId").asString(),
+            record.get("gameName").asString(null),
+            record.get("signal").asString(),
+            record.get("score").asLong());
+    }
+
+    // score(juego) = suma de peso(señal) * score / max(score de la señal), en escala 0-100
+    List<Recomendacion> fuse(List<SignalRow> rows, int maxRecommendations) {
+        Map<String, Long> maxBySignal = new HashMap<>();
+        for (SignalRow row : rows) {
+            maxBySignal.merge(row.signal, row.score, Math::max);
+        }
+        double totalWeight = 0;
+        for (double weight : weights.values()) {
+            totalWeight += weight;
+        }
+
+        StringDictionary gameIds = new StringDictionary();
+        List<String> gameNames = new ArrayList<>();
+        double[] fused = new double[rows.size()];
+        for (SignalRow row : rows) {
+            long max = maxBySignal.get(row.signal);
+            if (max <= 0) {
+                continue;
+            }
+            int game = gameIds.idOf(row.gameId);
+            if (game == gameNames.size()) {
+                gameNames.add(row.gameName);
+            }
+            fused[game] += weights.getOrDefault(row.signal, 0.0) * row.score / max;
+        }
+
+        // Los empates se resuelven por id de juego, como en el resto de recomendadores
+        TopKSelector selector = new TopKSelector(maxRecommendations,
+            (a, b) -> gameIds.valueOf(a).compareTo(gameIds.valueOf(b)));
+        for (int game = 0; game < gameIds.size(); game++) {
+            selector.offer(game, fused[game]);
+        }
+        int[] ordered = new int[selector.size()];
+        double[] scores = new double[selector.size()];
+        int count = selector.drainInto(ordered, scores);
+
+        List<Recomendacion> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recommendations.add(new Recomendacion(
+                gameIds.valueOf(ordered[i]),
+                gameNames.get(ordered[i]),
+                (int) Math.round(100 * scores[i] / totalWeight),
+                Recomendacion.TipoRecomendacion.HIBRIDA));
+        }
+        return recommendations;
+    }
+
+    public void displayRecommendations(List<Recomendacion> recommendations) {
+        System.out.println("Recomendaciones híbridas (preferencias, amigos y usuarios similares):");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Recomendacion rec = recommendations.get(i);
+            System.out.println((i + 1) + ". " + rec.getJuegoNombre() + " (Puntuación: " + rec.getPuntuacion() + ")");
+        }
+    }
+
+    static final class SignalRow {
+        private final String gameId;
+        private final String gameName;
+        private final String signal;
+        private final long score;
+
+        SignalRow(String gameId, String gameName, String signal, long score) {
+            this.gameId = gameId;
+            this.gameName = gameName;
+            this.signal = signal;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Parámetros de InteractionIngestor
+public class IngestionSettings {
+    // Eventos distintos pendientes de escribir; con la cola llena submit espera hasta offerTimeout
+    private int queueCapacity = 100_000;
+    private Duration offerTimeout = Duration.ofSeconds(1);
+    // Se escribe al juntar batchSize eventos o al pasar flushInterval, lo que ocurra antes
+    private int batchSize = 5_000;
+    private Duration flushInterval = Duration.ofMillis(100);
+    // Segmentos del registro de ingesta; los que queden al arrancar se vuelven a escribir
+    private Path logDirectory = Path.of("ingesta");
+    // fsync de cada segmento antes de escribirlo en Neo4j; sin él solo se sobrevive a la caída del proceso
+    private boolean syncLog = true;
+
+    public IngestionSettings() {
+    }
+
+    public IngestionSettings(int queueCapacity, int batchSize, Duration flushInterval, Path logDirectory) {
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.logDirectory = logDirectory;
+    }
+
+    // Getters y setters
+    public int getQueueCapacity() {return queueCapacity;}
+    public void setQueueCapacity(int queueCapacity) {this.queueCapacity = queueCapacity;}
+
+    public Duration getOfferTimeout() {return offerTimeout;}
+    public void setOfferTimeout(Duration offerTimeout) {this.offerTimeout = offerTimeout;}
+
+    public int getBatchSize() {return batchSize;}
+    public void setBatchSize(int batchSize) {this.batchSize = batchSize;}
+
+    public Duration getFlushInterval() {return flushInterval;}
+    public void setFlushInterval(Duration flushInterval) {this.flushInterval = flushInterval;}
+
+    public Path getLogDirectory() {return logDirectory;}
+    public void setLogDirectory(Path logDirectory) {this.logDirectory = logDirectory;}
+
+    public boolean isSyncLog() {return syncLog;}
+    public void setSyncLog(boolean syncLog) {this.syncLog = syncLog;}
+
+    @Override
+    public String toString() {
+        return "IngestionSettings{" +
+                "queueCapacity=" + queueCapacity +
+                ", offerTimeout=" + offerTimeout +
+                ", batchSize=" + batchSize +
+                ", flushInterval=" + flushInterval +
+                ", logDirectory=" + logDirectory +
+                ", syncLog=" + syncLog +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.example;
+
+// Estadísticas de InteractionIngestor en un instante dado
+public class IngestionStats {
+    private final long accepted;
+    private final long coalesced;
+    private final long rejected;
+    private final long written;
+    private final long missing;
+    private final long batches;
+    private final long failures;
+    private final long replayed;
+    private final int pending;
+
+    public IngestionStats(long accepted, long coalesced, long rejected, long written, long missing, long batches,
+                          long failures, long replayed, int pending) {
+        this.accepted = accepted;
+        this.coalesced = coalesced;
+        this.rejected = rejected;
+        this.written = written;
+        this.missing = missing;
+        this.batches = batches;
+        this.failures = failures;
+        this.replayed = replayed;
+        this.pending = pending;
+    }
+
+    // Eventos nuevos registrados en la cola
+    public long getAccepted() {return accepted;}
+    // Eventos iguales a uno que ya esperaba en la cola
+    public long getCoalesced() {return coalesced;}
+    // Eventos rechazados por cola llena
+    public long getRejected() {return rejected;}
+    // Eventos confirmados en Neo4j
+    public long getWritten() {return written;}
+    // Eventos descartados porque su juego no existe; quedan en InteractionIngestor.DEAD_LETTER_FILE
+    public long getMissing() {return missing;}
+    public long getBatches() {return batches;}
+    public long getFailures() {return failures;}
+    // Eventos de segmentos pendientes que se reescribieron al arrancar
+    public long getReplayed() {return replayed;}
+    public int getPending() {return pending;}
+
+    @Override
+    public String toString() {
+        return "IngestionStats{" +
+                "aceptados=" + accepted +
+                ", fusionados=" + coalesced +
+                ", rechazados=" + rejected +
+                ", escritos=" + written +
+                ", sinJuego=" + missing +
+                ", lotes=" + batches +
+                ", fallos=" + failures +
+                ", reproducidos=" + replayed +
+                ", pendientes=" + pending +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.example;
+
+import java.util.Objects;
+
+// Una interacción a persistir: usuario -[tipo]-> juego (LIKES, PLAYED) o usuario (FRIENDS_WITH).
+// Dos eventos iguales son la misma arista, así que se pueden fusionar sin perder nada.
+public final class InteractionEvent {
+    public enum Type {
+        LIKES,
+        PLAYED,
+        FRIENDS_WITH
+    }
+
+    private final Type type;
+    private final String userId;
+    private final String targetId;
+
+    public InteractionEvent(Type type, String userId, String targetId) {
+        if (type == null || userId == null || targetId == null) {
+            throw new IllegalArgumentException("El tipo y los ids no pueden ser null");
+        }
+        if (!validId(userId) || !validId(targetId)) {
+            throw new IllegalArgumentException("Los ids no pueden estar vacíos ni contener tabuladores o saltos de línea");
+        }
+        this.type = type;
+        this.userId = userId;
+        this.targetId = targetId;
+    }
+
+    public static InteractionEvent likes(String userId, String gameId) {
+        return new InteractionEvent(Type.LIKES, userId, gameId);
+    }
+
+    public static InteractionEvent played(String userId, String gameId) {
+        return new InteractionEvent(Type.PLAYED, userId, gameId);
+    }
+
+    public static InteractionEvent friendship(String userId, String friendId) {
+        return new InteractionEvent(Type.FRIENDS_WITH, userId, friendId);
+    }
+
+    // Formato del registro de ingesta: tipo, usuario y destino separados por tabuladores
+    public String toLogLine() {
+        return type + "\t" + userId + "\t" + targetId + "\n";
+    }
+
+    public static InteractionEvent parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Línea de interacción inválida: " + line);
+        }
+        Type type;
+        try {
+            type = Type.valueOf(fields[0]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de interacción desconocido: " + fields[0]);
+        }
+        return new InteractionEvent(type, fields[1], fields[2]);
+    }
+
+    private static boolean validId(String id) {
+        return !id.isEmpty() && id.indexOf('\t') < 0 && id.indexOf('\n') < 0 && id.indexOf('\r') < 0;
+    }
+
+    public Type getType() {return type;}
+    public String getUserId() {return userId;}
+    public String getTargetId() {return targetId;}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InteractionEvent that = (InteractionEvent) o;
+        return type == that.type && userId.equals(that.userId) && targetId.equals(that.targetId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, userId, targetId);
+    }
+
+    @Override
+    public String toString() {
+        return userId + " -" + type + "-> " + targetId;
+    }
+}
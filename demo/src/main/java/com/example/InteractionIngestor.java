@@ -0,0 +1,507 @@
+package com.example;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Values;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Ingesta de LIKES, PLAYED y FRIENDS_WITH con escritura agrupada (group commit).
+//  - submit() registra el evento en el segmento actual del registro de ingesta y lo deja en una cola
+//    acotada; un evento igual a uno pendiente se fusiona con él. Con la cola llena espera hasta
+//    offerTimeout y devuelve false (contrapresión).
+//  - Un único hilo vacía la cola al juntar batchSize eventos o cada flushInterval: cambia de segmento,
+//    escribe con UNWIND + MERGE en transacciones de batchSize filas y, confirmado el lote, borra el
+//    segmento. La invalidación de la caché de los usuarios afectados hace lecturas en Neo4j, así que va
+//    a otro hilo: los lotes que esperan se fusionan en uno (una consulta por tipo de dependencia) y, si
+//    se acumulan queueCapacity eventos sin invalidar, el hilo de escritura espera (contrapresión).
+//  - Los LIKES y PLAYED cuyo juego no existe no se escriben: se cuentan aparte y se guardan en
+//    DEAD_LETTER_FILE con el formato del registro para reinyectarlos cuando el juego exista.
+//  - Al arrancar se reescriben los segmentos que hayan quedado (entrega al menos una vez; MERGE hace
+//    que repetir un evento no duplique la arista).
+public class InteractionIngestor implements AutoCloseable {
+    static final String SEGMENT_PREFIX = "interacciones-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String DEAD_LETTER_FILE = "descartadas.log";
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+    private static final long INVALIDATION_DRAIN_SECONDS = 30;
+
+    private final Neo4jConnectionManager connectionManager;
+    // Opcional: sin él no se invalida nada
+    private final CachedRecommenderService recommender;
+    private final IngestionSettings settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition batchReady = lock.newCondition();
+    // Protegidos por lock
+    private LinkedHashSet<InteractionEvent> pending = new LinkedHashSet<>();
+    private FileChannel segment;
+    private Path segmentPath;
+    private long nextSegment;
+    private boolean closing;
+
+    private final Thread flusher;
+    private final Thread invalidator;
+    // Eventos escritos cuya invalidación está pendiente, protegidos por invalidationLock
+    private final ReentrantLock invalidationLock = new ReentrantLock();
+    private final Condition invalidationsReady = invalidationLock.newCondition();
+    private final Condition invalidationsNotFull = invalidationLock.newCondition();
+    private LinkedHashSet<InteractionEvent> invalidations = new LinkedHashSet<>();
+    private boolean invalidatorStopping;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public InteractionIngestor(Neo4jConnectionManager connectionManager) throws IOException {
+        this(connectionManager, null, new IngestionSettings());
+    }
+
+    public InteractionIngestor(Neo4jConnectionManager connectionManager, CachedRecommenderService recommender,
+                               IngestionSettings settings) throws IOException {
+        if (settings.getQueueCapacity() <= 0 || settings.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("queueCapacity y batchSize deben ser positivos");
+        }
+        this.connectionManager = connectionManager;
+        this.recommender = recommender;
+        this.settings = settings;
+        // Arranca antes de reproducir los segmentos pendientes, que también invalidan
+        this.invalidator = new Thread(this::invalidationLoop, "interaction-invalidator");
+        invalidator.setDaemon(true);
+        invalidator.start();
+
+        Files.createDirectories(settings.getLogDirectory());
+        List<Path> leftovers = segments();
+        for (Path leftover : leftovers) {
+            replay(leftover);
+        }
+        nextSegment = leftovers.isEmpty() ? 0 : segmentNumber(leftovers.get(leftovers.size() - 1)) + 1;
+        openSegment();
+
+        flusher = new Thread(this::flushLoop, "interaction-ingestor");
+        flusher.start();
+    }
+
+    // true si el evento quedó registrado (o fusionado con uno pendiente); false si la cola siguió llena
+    public boolean submit(InteractionEvent event) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (closing) {
+                throw new IllegalStateException("El ingestor está cerrado");
+            }
+            long remaining = settings.getOfferTimeout().toNanos();
+            while (!pending.contains(event) && pending.size() >= settings.getQueueCapacity()) {
+                if (remaining <= 0) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            if (pending.contains(event)) {
+                coalesced.incrementAndGet();
+                return true;
+            }
+            append(event);
+            pending.add(event);
+            accepted.incrementAndGet();
+            if (pending.size() >= settings.getBatchSize()) {
+                batchReady.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Las relaciones que un Usuario acumuló en memoria
+    public boolean submit(Usuario usuario) throws InterruptedException {
+        boolean all = true;
+        for (String amigo : usuario.getAmigos()) {
+            all &= submit(InteractionEvent.friendship(usuario.getId(), amigo));
+        }
+        for (String juego : usuario.getJuegosJugados()) {
+            all &= submit(InteractionEvent.played(usuario.getId(), juego));
+        }
+        for (String juego : usuario.getJuegosGustados()) {
+            all &= submit(InteractionEvent.likes(usuario.getId(), juego));
+        }
+        return all;
+    }
+
+    // Llega al kernel en cada evento: sobrevive a la caída del proceso aunque aún no haya fsync
+    private void append(InteractionEvent event) {
+        try {
+            ByteBuffer line = ByteBuffer.wrap(event.toLogLine().getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                segment.write(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el registro de ingesta " + segmentPath, e);
+        }
+    }
+
+    private void flushLoop() {
+        long rotateDelay = 100;
+        while (true) {
+            List<InteractionEvent> batch;
+            Path batchSegment;
+            lock.lock();
+            try {
+                long remaining = settings.getFlushInterval().toNanos();
+                while (!closing && pending.size() < settings.getBatchSize() && remaining > 0) {
+                    remaining = batchReady.awaitNanos(remaining);
+                }
+                if (pending.isEmpty()) {
+                    if (closing) {
+                        return;
+                    }
+                    continue;
+                }
+                // Primero el segmento: si falla, los eventos siguen en la cola
+                batchSegment = rotateSegment();
+                batch = new ArrayList<>(pending);
+                pending = new LinkedHashSet<>();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                // close() no interrumpe; si alguien lo hace, lo pendiente queda en el segmento
+                return;
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                System.err.println("No se pudo cambiar de segmento de ingesta: " + e.getMessage());
+                // Al cerrar no se reintenta: lo pendiente ya está en el segmento y se reescribe al arrancar
+                if (closing) {
+                    System.err.println("Quedan en " + segmentPath + " para el próximo arranque");
+                    return;
+                }
+                batch = null;
+                batchSegment = null;
+            } finally {
+                lock.unlock();
+            }
+            if (batch == null) {
+                try {
+                    Thread.sleep(rotateDelay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                rotateDelay = Math.min(rotateDelay * 2, MAX_RETRY_DELAY_MILLIS);
+                continue;
+            }
+            rotateDelay = 100;
+            commit(batch, batchSegment);
+        }
+    }
+
+    // Reintenta con espera creciente; al cerrar deja el segmento para reproducirlo en el próximo arranque
+    private void commit(List<InteractionEvent> batch, Path batchSegment) {
+        long delay = 100;
+        List<InteractionEvent> notFound;
+        while (true) {
+            try {
+                notFound = write(batch);
+                break;
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                System.err.println("No se pudo escribir un lote de " + batch.size() + " interacciones: " + e.getMessage());
+                if (isClosing()) {
+                    System.err.println("Quedan en " + batchSegment + " para el próximo arranque");
+                    return;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+            }
+        }
+        try {
+            Files.deleteIfExists(batchSegment);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar " + batchSegment + "; se reescribirá al arrancar: " + e.getMessage());
+        }
+        written.addAndGet(batch.size() - notFound.size());
+        deadLetter(notFound);
+        invalidate(stored(batch, notFound));
+    }
+
+    // Una transacción por cada batchSize eventos, con un UNWIND por tipo.
+    // Devuelve los eventos que no se escribieron porque su juego no existe.
+    List<InteractionEvent> write(List<InteractionEvent> events) {
+        List<InteractionEvent> notFound = new ArrayList<>();
+        int batchSize = settings.getBatchSize();
+        for (int from = 0; from < events.size(); from += batchSize) {
+            Map<InteractionEvent.Type, List<Map<String, Object>>> rowsByType = new EnumMap<>(InteractionEvent.Type.class);
+            for (InteractionEvent event : events.subList(from, Math.min(from + batchSize, events.size()))) {
+                Map<String, Object> row = new HashMap<>(4);
+                row.put("userId", event.getUserId());
+                row.put("targetId", event.getTargetId());
+                rowsByType.computeIfAbsent(event.getType(), type -> new ArrayList<>()).add(row);
+            }
+            notFound.addAll(connectionManager.executeWrite("ingesta.interacciones", tx -> {
+                List<InteractionEvent> rejectedRows = new ArrayList<>();
+                for (Map.Entry<InteractionEvent.Type, List<Map<String, Object>>> entry : rowsByType.entrySet()) {
+                    for (Record record : tx.run(queryFor(entry.getKey()), Values.parameters("rows", entry.getValue())).list()) {
+                        rejectedRows.add(new InteractionEvent(entry.getKey(), record.get("userId").asString(),
+                            record.get("targetId").asString()));
+                    }
+                }
+                return rejectedRows;
+            }));
+            batches.incrementAndGet();
+        }
+        return notFound;
+    }
+
+    private static List<InteractionEvent> stored(List<InteractionEvent> events, List<InteractionEvent> notFound) {
+        if (notFound.isEmpty()) {
+            return events;
+        }
+        List<InteractionEvent> stored = new ArrayList<>(events);
+        stored.removeAll(new HashSet<>(notFound));
+        return stored;
+    }
+
+    // Se añaden al final de DEAD_LETTER_FILE; si tampoco se puede escribir ahí, al menos quedan en el log
+    private void deadLetter(List<InteractionEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        missing.addAndGet(events.size());
+        Path file = settings.getLogDirectory().resolve(DEAD_LETTER_FILE);
+        System.err.println(events.size() + " interacciones apuntan a juegos inexistentes; se guardan en " + file);
+        StringBuilder lines = new StringBuilder();
+        for (InteractionEvent event : events) {
+            lines.append(event.toLogLine());
+        }
+        try {
+            Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir " + file + " (" + e.getMessage() + "):\n" + lines);
+        }
+    }
+
+    static String queryFor(InteractionEvent.Type type) {
+        switch (type) {
+            case LIKES:
+                return CypherQueries.INGEST_LIKES_QUERY;
+            case PLAYED:
+                return CypherQueries.INGEST_PLAYED_QUERY;
+            case FRIENDS_WITH:
+                return CypherQueries.INGEST_FRIENDS_QUERY;
+            default:
+                throw new IllegalArgumentException("Tipo de interacción desconocido: " + type);
+        }
+    }
+
+    // Deja el lote para el hilo de invalidación; espera mientras haya queueCapacity eventos sin invalidar
+    private void invalidate(List<InteractionEvent> batch) {
+        if (recommender == null || batch.isEmpty()) {
+            return;
+        }
+        invalidationLock.lock();
+        try {
+            while (invalidations.size() >= settings.getQueueCapacity() && !invalidatorStopping) {
+                invalidationsNotFull.awaitUninterruptibly();
+            }
+            invalidations.addAll(batch);
+            invalidationsReady.signal();
+        } finally {
+            invalidationLock.unlock();
+        }
+    }
+
+    // Toma todo lo pendiente de una vez, así varios lotes que esperaban cuestan las mismas consultas que uno
+    private void invalidationLoop() {
+        while (true) {
+            List<InteractionEvent> events;
+            invalidationLock.lock();
+            try {
+                while (invalidations.isEmpty() && !invalidatorStopping) {
+                    invalidationsReady.awaitUninterruptibly();
+                }
+                if (invalidations.isEmpty()) {
+                    return;
+                }
+                events = new ArrayList<>(invalidations);
+                invalidations = new LinkedHashSet<>();
+                invalidationsNotFull.signalAll();
+            } finally {
+                invalidationLock.unlock();
+            }
+            int batchSize = settings.getBatchSize();
+            for (int from = 0; from < events.size(); from += batchSize) {
+                try {
+                    recommender.onInteractionsChanged(events.subList(from, Math.min(from + batchSize, events.size())));
+                } catch (RuntimeException e) {
+                    // Las aristas ya están escritas; lo que quede en caché caduca con su TTL
+                    System.err.println("No se pudo invalidar la caché tras un lote de ingesta: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Termina lo pendiente; si tarda demasiado, lo que quede en caché caduca con su TTL
+    private void stopInvalidator() throws InterruptedException {
+        invalidationLock.lock();
+        try {
+            invalidatorStopping = true;
+            invalidationsReady.signal();
+            invalidationsNotFull.signalAll();
+        } finally {
+            invalidationLock.unlock();
+        }
+        invalidator.join(TimeUnit.SECONDS.toMillis(INVALIDATION_DRAIN_SECONDS));
+        if (invalidator.isAlive()) {
+            invalidationLock.lock();
+            try {
+                System.err.println("La invalidación de caché seguía en curso al cerrar la ingesta; se descartan "
+                    + invalidations.size() + " eventos pendientes");
+                invalidations.clear();
+            } finally {
+                invalidationLock.unlock();
+            }
+        }
+    }
+
+    private void replay(Path leftover) throws IOException {
+        LinkedHashSet<InteractionEvent> events = new LinkedHashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(leftover, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Una caída a mitad de línea deja la última incompleta
+                if (!line.isEmpty()) {
+                    try {
+                        events.add(InteractionEvent.parse(line));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Se descarta una línea inválida de " + leftover + ": " + line);
+                    }
+                }
+            }
+        }
+        List<InteractionEvent> all = new ArrayList<>(events);
+        List<InteractionEvent> notFound = write(all);
+        Files.delete(leftover);
+        replayed.addAndGet(all.size() - notFound.size());
+        deadLetter(notFound);
+        invalidate(stored(all, notFound));
+        System.out.println("Reproducidas " + events.size() + " interacciones de " + leftover);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(settings.getLogDirectory())) {
+            return files
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // Si no se puede abrir, el segmento actual sigue siendo el mismo
+    private void openSegment() throws IOException {
+        Path path = settings.getLogDirectory().resolve(SEGMENT_PREFIX + nextSegment + SEGMENT_SUFFIX);
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentPath = path;
+        nextSegment++;
+    }
+
+    // Abre el siguiente segmento y cierra el actual (con fsync si se pidió); devuelve el cerrado.
+    // Abrir primero deja el segmento actual abierto y usable si el nuevo falla.
+    private Path rotateSegment() throws IOException {
+        Path closed = segmentPath;
+        FileChannel previous = segment;
+        if (settings.isSyncLog()) {
+            previous.force(false);
+        }
+        openSegment();
+        previous.close();
+        return closed;
+    }
+
+    private boolean isClosing() {
+        lock.lock();
+        try {
+            return closing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public IngestionStats getStats() {
+        int queued;
+        lock.lock();
+        try {
+            queued = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        return new IngestionStats(accepted.get(), coalesced.get(), rejected.get(), written.get(), missing.get(),
+            batches.get(), failures.get(), replayed.get(), queued);
+    }
+
+    // Escribe lo pendiente y espera al hilo de escritura; lo que no se pueda escribir queda en el registro
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            batchReady.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+            stopInvalidator();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segment.close();
+            // El último segmento queda vacío si todo se escribió
+            if (pending.isEmpty() && Files.size(segmentPath) == 0) {
+                Files.delete(segmentPath);
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo cerrar el registro de ingesta: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Backend en memoria que busca usuarios similares con MinHashLshIndex en lugar de expandir
+// usuario -> juego -> todos los demás que le dan LIKES. Solo puntúan los similarUsers vecinos con
+// mayor Jaccard, cada uno con su número de juegos en común, como en la versión exacta.
+// Las recomendaciones por amigos se delegan en el CsrGraphBackend.
+public class LshGraphBackend implements GraphBackend {
+    public static final int DEFAULT_SIMILAR_USERS = 50;
+
+    private final CsrGraphBackend graph;
+    private final MinHashLshIndex index;
+    private final int similarUsers;
+    private final boolean exact;
+
+    public LshGraphBackend(CsrGraphBackend graph) {
+        this(graph, MinHashLshIndex.build(graph), DEFAULT_SIMILAR_USERS, false);
+    }
+
+    // exact = true usa la búsqueda exacta del índice, para validar el recall sobre los mismos datos
+    public LshGraphBackend(CsrGraphBackend graph, MinHashLshIndex index, int similarUsers, boolean exact) {
+        if (similarUsers <= 0) {
+            throw new IllegalArgumentException("similarUsers debe ser positivo");
+        }
+        this.graph = graph;
+        this.index = index;
+        this.similarUsers = similarUsers;
+        this.exact = exact;
+    }
+
+    @Override
+    public List<Recomendacion> recommendGamesByFriends(String userId, int maxRecommendations) {
+        return graph.recommendGamesByFriends(userId, maxRecommendations);
+    }
+
+    @Override
+    public List<Recomendacion> recommendGamesBySimilarUsers(String userId, int maxRecommendations) {
+        int user = graph.userIndexOf(userId);
+        if (user < 0) {
+            return Collections.emptyList();
+        }
+        return graph.toRecommendations(similarUserScores(user), maxRecommendations);
+    }
+
+    @Override
+    public RecommendationPage recommendGamesBySimilarUsersPage(String userId, int pageSize, String cursor) {
+        RecommendationPage.Cursor after = RecommendationPage.Cursor.decode(cursor);
+        int user = graph.userIndexOf(userId);
+        if (user < 0) {
+            return RecommendationPage.of(Collections.emptyList(), pageSize);
+        }
+        return RecommendationPage.of(graph.toRecommendations(similarUserScores(user), pageSize + 1, after), pageSize);
+    }
+
+    private ScoreAccumulator similarUserScores(int user) {
+        boolean[] excluded = graph.userGames(user);
+
+        TopKSelector neighbours = exact
+            ? index.exactSimilarUsers(user, similarUsers)
+            : index.similarUsers(user, similarUsers);
+        CsrAdjacency likes = graph.getLikes();
+        ScoreAccumulator scores = new ScoreAccumulator(graph.gameCount());
+        for (int other : neighbours.drainKeys()) {
+            int commonGames = index.intersection(user, other);
+            for (int l = likes.start(other); l < likes.end(other); l++) {
+                int game = likes.target(l);
+                if (!excluded[game]) {
+                    scores.add(game, commonGames);
+                }
+            }
+        }
+        return scores;
+    }
+
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesByFriendsAsync(String userId, int maxRecommendations) {
+        return CompletableFuture.completedFuture(recommendGamesByFriends(userId, maxRecommendations));
+    }
+
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesBySimilarUsersAsync(String userId, int maxRecommendations) {
+        return CompletableFuture.completedFuture(recommendGamesBySimilarUsers(userId, maxRecommendations));
+    }
+
+    public MinHashLshIndex getIndex() {
+        return index;
+    }
+}
@@ -7,6 +7,9 @@ public class Main {
     private static Neo4jConnectionManager conexion;
     private static PersonalRecommenderService personalRecommender;
     private static CollaborativeRecommenderService collaborativeRecommender;
+    private static HybridRecommenderService hybridRecommender;
+    private static ContentVectorIndex contentIndex;
+    private static MetricsReporter metricsReporter;
     private static Scanner scanner;
 
     public static void main(String[] args) {
@@ -15,9 +18,68 @@ public class Main {
             conexion = new Neo4jConnectionManager();
             conexion.probarConexion();
             
+            // Restricciones e índices que necesitan las consultas (idempotente)
+            new SchemaBootstrapper(conexion).bootstrap();
+            
+            // Modo ingesta: java Main ingestar [archivo.tsv] (líneas TIPO<tab>usuario<tab>destino; sin archivo, stdin)
+            if (args.length > 0 && args[0].equals("ingestar")) {
+                ingestarInteracciones(args);
+                return;
+            }
+            
+            // Modo verificación de planes: java Main planes
+            if (args.length > 0 && args[0].equals("planes")) {
+                verificarPlanes();
+                return;
+            }
+            
+            // Modo importación: java Main importar [archivo.csv] [tamañoLote] [particiones]
+            if (args.length > 0 && args[0].equals("importar")) {
+                importarCatalogo(args);
+                return;
+            }
+            
+            // Modo lote: java Main lote [topN] [archivoCheckpoint]
+            if (args.length > 0 && args[0].equals("lote")) {
+                recomendacionesEnLote(args);
+                return;
+            }
+            
+            // Modo similitud: java Main similitud [topK] | java Main similitud juego1,juego2,...
+            if (args.length > 0 && args[0].equals("similitud")) {
+                calcularSimilitud(args);
+                return;
+            }
+            
+            // Modo validación del índice LSH: java Main lsh [bandas] [filasPorBanda] [muestras]
+            if (args.length > 0 && args[0].equals("lsh")) {
+                validarIndiceLsh(args);
+                return;
+            }
+            
+            // Modo servidor HTTP: java Main servidor [puerto] [peticionesSimultaneas]
+            if (args.length > 0 && args[0].equals("servidor")) {
+                servidor(args);
+                return;
+            }
+            
+            // Planes de todas las consultas en la caché de Neo4j antes de la primera petición; solo el menú
+            // y el servidor atienden peticiones, los modos por lotes no pagan la precompilación
+            new QueryPlanWarmup(conexion).warmUp();
+            
             // Inicializar servicios
-            personalRecommender = new PersonalRecommenderService(conexion);
+            // El catálogo columnar (vgsales.csv + puntajes de video_games.csv) resuelve los filtros en memoria
+            personalRecommender = new PersonalRecommenderService(conexion, ColumnarCatalog.load(null, null));
             collaborativeRecommender = new CollaborativeRecommenderService(conexion);
+            hybridRecommender = new HybridRecommenderService(conexion);
+            
+            // Métricas: -Dmetricas.puerto=9100 expone GET /metrics y -Dmetricas.profile=N perfila una de cada N lecturas
+            conexion.getMetrics().setProfileEvery(Integer.getInteger("metricas.profile", 0));
+            metricsReporter = new MetricsReporter(conexion.getMetrics());
+            int puertoMetricas = Integer.getInteger("metricas.puerto", 0);
+            if (puertoMetricas > 0) {
+                metricsReporter.startHttp(puertoMetricas);
+            }
             
             scanner = new Scanner(System.in);
             
@@ -42,6 +104,15 @@ public class Main {
                         recomendacionesPorUsuariosSimilares(); 
                         break;
                     case 5: 
+                        recomendacionesPorContenido(); 
+                        break;
+                    case 6: 
+                        mejoresJuegosFiltrados(); 
+                        break;
+                    case 7: 
+                        recomendacionesHibridas(); 
+                        break;
+                    case 8: 
                         salir = true; 
                         break;
                     default: 
@@ -53,6 +124,10 @@ public class Main {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+                System.out.println(conexion.getMetrics().report());
+            }
             if (conexion != null) {
                 conexion.cerrar();
             }
@@ -62,13 +137,155 @@ public class Main {
         }
     }
 
+    private static void ingestarInteracciones(String[] args) throws java.io.IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        long leidas = 0;
+        long invalidas = 0;
+        long numeroLinea = 0;
+        // Fuera del try para leer las estadísticas después de cerrarlo, con todo ya escrito
+        InteractionIngestor ingestor = new InteractionIngestor(conexion);
+        try (ingestor;
+             java.io.BufferedReader lector = args.length > 1
+                 ? java.nio.file.Files.newBufferedReader(java.nio.file.Path.of(args[1]))
+                 : new java.io.BufferedReader(new java.io.InputStreamReader(System.in, java.nio.charset.StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                // Una línea mal formada no detiene la carga: se informa y se sigue con la siguiente
+                InteractionEvent evento;
+                try {
+                    evento = InteractionEvent.parse(linea);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Línea " + numeroLinea + " ignorada: " + e.getMessage());
+                    invalidas++;
+                    continue;
+                }
+                // Con la cola llena se reintenta: el productor se frena al ritmo de las escrituras
+                while (!ingestor.submit(evento)) {
+                    System.err.println("Cola de ingesta llena; reintentando");
+                }
+                leidas++;
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.println(String.format("%d interacciones en %.1f s (%.0f/s), %d líneas inválidas: %s", leidas, segundos,
+            leidas / segundos, invalidas, ingestor.getStats()));
+    }
+
+    // Termina con código 1 si algún plan recorre una etiqueta completa o hace un producto cartesiano
+    private static void verificarPlanes() {
+        QueryPlanGuard guardia = QueryPlanGuard.forServices(conexion);
+        List<String> violaciones = guardia.check();
+        for (String violacion : violaciones) {
+            System.err.println(violacion);
+        }
+        System.out.println(guardia.size() + " consultas revisadas, " + violaciones.size() + " planes sin índice");
+        if (!violaciones.isEmpty()) {
+            conexion.cerrar();
+            System.exit(1);
+        }
+    }
+
+    private static void importarCatalogo(String[] args) throws java.io.IOException {
+        String archivo = args.length > 1 && !args[1].equals("-") ? args[1] : null;
+        int tamañoLote = args.length > 2 ? Integer.parseInt(args[2]) : VgSalesImporter.DEFAULT_BATCH_SIZE;
+        int particiones = args.length > 3 ? Integer.parseInt(args[3]) : VgSalesImporter.DEFAULT_PARTITIONS;
+        
+        new VgSalesImporter(conexion, tamañoLote, particiones).importCsv(archivo);
+    }
+
+    private static void recomendacionesEnLote(String[] args) {
+        int topN = args.length > 1 ? Integer.parseInt(args[1]) : BatchRecommendationJob.DEFAULT_TOP_N;
+        java.nio.file.Path checkpoint = java.nio.file.Path.of(args.length > 2 ? args[2] : "recomendaciones-lote.checkpoint");
+        
+        // El grafo social se carga en memoria para no consultar Neo4j por cada usuario
+        CollaborativeRecommenderService colaborativo = new CollaborativeRecommenderService(CsrGraphBackend.load(conexion),
+            conexion.getMetrics());
+        PersonalRecommenderService personal = new PersonalRecommenderService(conexion);
+        
+        new BatchRecommendationJob(conexion, colaborativo, personal, checkpoint, topN,
+            BatchRecommendationJob.DEFAULT_PARTITION_SIZE, Runtime.getRuntime().availableProcessors()).run();
+        System.out.println(conexion.getMetrics().report());
+    }
+
+    // Sin argumentos o con un número recalcula todo; con ids separados por comas solo sus vecindarios
+    private static void calcularSimilitud(String[] args) {
+        CatalogIndexRefresher catalogo = CatalogIndexRefresher.open(conexion, java.nio.file.Path.of("catalogo.snapshot"));
+        if (args.length > 1 && !args[1].matches("\\d+")) {
+            new SimilarityJob(conexion, catalogo).recompute(java.util.Arrays.asList(args[1].split(",")));
+            return;
+        }
+        int topK = args.length > 1 ? Integer.parseInt(args[1]) : SimilarityJob.DEFAULT_TOP_K;
+        new SimilarityJob(conexion, catalogo, topK, SimilarityJob.DEFAULT_BATCH_SIZE,
+            Runtime.getRuntime().availableProcessors()).run();
+    }
+
+    // Atiende peticiones hasta que llega SIGTERM o Ctrl+C; el apagado espera a las peticiones en curso
+    private static void servidor(String[] args) throws java.io.IOException, InterruptedException {
+        ServerSettings ajustes = new ServerSettings();
+        if (args.length > 1) {
+            ajustes.setPort(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            ajustes.setMaxConcurrentRequests(Integer.parseInt(args[2]));
+        }
+        
+        new QueryPlanWarmup(conexion).warmUp();
+        
+        CachedRecommenderService recomendador = new CachedRecommenderService(
+            new PersonalRecommenderService(conexion),
+            new CollaborativeRecommenderService(conexion),
+            conexion);
+        
+        // POST /interacciones escribe con group commit e invalida la caché de este servidor; el modo `ingestar`
+        // corre en otro proceso y no puede invalidarla, así que con el servidor en marcha se ingiere por aquí.
+        // Directorio propio para no reproducir los segmentos de un `ingestar` que corra a la vez
+        IngestionSettings ingesta = new IngestionSettings();
+        ingesta.setLogDirectory(java.nio.file.Path.of("ingesta-servidor"));
+        InteractionIngestor ingestor = new InteractionIngestor(conexion, recomendador, ingesta);
+        
+        RecommendationServer servidor = new RecommendationServer(recomendador, conexion, ingestor, ajustes);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.close();
+        }, "apagado-servidor"));
+        servidor.start();
+        servidor.awaitTermination();
+    }
+
+    // Compara la búsqueda aproximada de usuarios similares con la exacta sobre una muestra fija
+    private static void validarIndiceLsh(String[] args) {
+        int bandas = args.length > 1 ? Integer.parseInt(args[1]) : MinHashLshIndex.DEFAULT_BANDS;
+        int filas = args.length > 2 ? Integer.parseInt(args[2]) : MinHashLshIndex.DEFAULT_ROWS_PER_BAND;
+        int muestras = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        
+        CsrGraphBackend grafo = CsrGraphBackend.load(conexion);
+        long inicio = System.nanoTime();
+        MinHashLshIndex indice = new MinHashLshIndex(grafo.getLikes(), grafo.getLikedBy(), bandas, filas,
+            MinHashLshIndex.DEFAULT_MAX_BUCKET_SCAN, MinHashLshIndex.DEFAULT_SEED);
+        System.out.println("Índice LSH de " + grafo.userCount() + " usuarios en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        
+        java.util.Random random = new java.util.Random(MinHashLshIndex.DEFAULT_SEED);
+        int[] usuarios = new int[Math.min(muestras, grafo.userCount())];
+        for (int i = 0; i < usuarios.length; i++) {
+            usuarios[i] = random.nextInt(grafo.userCount());
+        }
+        System.out.println(String.format("Recall@%d con %d bandas x %d filas: %.3f", LshGraphBackend.DEFAULT_SIMILAR_USERS,
+            bandas, filas, indice.recall(usuarios, LshGraphBackend.DEFAULT_SIMILAR_USERS)));
+    }
+
     private static void mostrarMenu() {
         System.out.println("\n=== SISTEMA DE RECOMENDACIÓN DE VIDEOJUEGOS ===");
         System.out.println("1. Recomendaciones basadas en tus preferencias");
         System.out.println("2. Recomendaciones basadas en un juego que te gusta");
         System.out.println("3. Recomendaciones basadas en tus amigos");
         System.out.println("4. Recomendaciones basadas en usuarios similares");
-        System.out.println("5. Salir");
+        System.out.println("5. Juegos parecidos por contenido (género, plataforma, ventas)");
+        System.out.println("6. Mejores juegos por género, plataforma, año y puntaje");
+        System.out.println("7. Recomendaciones híbridas (preferencias, amigos y usuarios similares)");
+        System.out.println("8. Salir");
         System.out.print("Seleccione una opción: ");
     }
 
@@ -127,4 +344,65 @@ public class Main {
         System.out.println("\nResultados:");
         collaborativeRecommender.displayRecommendations(recomendaciones);
     }
+
+    private static void recomendacionesHibridas() {
+        System.out.println("\n--- RECOMENDACIONES HÍBRIDAS ---");
+        System.out.print("Ingrese su ID de usuario: ");
+        String userId = scanner.nextLine();
+        
+        System.out.print("Número máximo de recomendaciones: ");
+        int maxRecomendaciones = scanner.nextInt();
+        scanner.nextLine(); // Limpiar buffer
+        
+        List<Recomendacion> recomendaciones = hybridRecommender.recommendGames(userId, maxRecomendaciones);
+        System.out.println("\nResultados:");
+        hybridRecommender.displayRecommendations(recomendaciones);
+    }
+
+    private static void recomendacionesPorContenido() throws java.io.IOException {
+        System.out.println("\n--- JUEGOS PARECIDOS POR CONTENIDO ---");
+        System.out.print("Ingrese el ID del juego: ");
+        String juegoId = scanner.nextLine();
+        
+        System.out.print("Número máximo de recomendaciones: ");
+        int maxRecomendaciones = scanner.nextInt();
+        scanner.nextLine(); // Limpiar buffer
+        
+        // Los vectores se construyen desde el CSV la primera vez que se usa la opción
+        if (contentIndex == null) {
+            contentIndex = ContentVectorIndex.load(null);
+        }
+        List<Recomendacion> recomendaciones = contentIndex.recommendGamesLike(juegoId, maxRecomendaciones);
+        System.out.println("\nResultados:");
+        personalRecommender.displayRecommendations(recomendaciones);
+    }
+
+    // Los campos vacíos no filtran
+    private static void mejoresJuegosFiltrados() {
+        System.out.println("\n--- MEJORES JUEGOS ---");
+        CatalogQuery consulta = new CatalogQuery();
+        consulta.setGenre(leerOpcional("Género (ej. Sports): "));
+        consulta.setPlatform(leerOpcional("Plataforma (ej. Wii): "));
+        String desde = leerOpcional("Desde el año: ");
+        consulta.setYearFrom(desde == null ? null : Integer.valueOf(desde));
+        String hasta = leerOpcional("Hasta el año: ");
+        consulta.setYearTo(hasta == null ? null : Integer.valueOf(hasta));
+        String puntaje = leerOpcional("Puntaje de crítica mínimo (0-100): ");
+        consulta.setMinCriticScore(puntaje == null ? null : Float.valueOf(puntaje));
+        consulta.setSortBy(puntaje == null ? ColumnarCatalog.Column.VENTAS_GLOBALES : ColumnarCatalog.Column.PUNTAJE_CRITICA);
+        
+        System.out.print("Número máximo de recomendaciones: ");
+        consulta.setLimit(scanner.nextInt());
+        scanner.nextLine(); // Limpiar buffer
+        
+        List<Recomendacion> recomendaciones = personalRecommender.getColumnarCatalog().query(consulta);
+        System.out.println("\nResultados:");
+        personalRecommender.displayRecommendations(recomendaciones);
+    }
+
+    private static String leerOpcional(String mensaje) {
+        System.out.print(mensaje);
+        String valor = scanner.nextLine().trim();
+        return valor.isEmpty() ? null : valor;
+    }
 }
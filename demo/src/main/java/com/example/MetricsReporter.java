@@ -0,0 +1,124 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Publica las métricas de QueryMetrics: en la consola cada cierto intervalo y/o como endpoint
+// GET /metrics en formato de texto de Prometheus, para que un recolector las lea cuando quiera.
+public class MetricsReporter implements AutoCloseable {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+
+    private final QueryMetrics metrics;
+    private ScheduledExecutorService scheduler;
+    private HttpServer server;
+
+    public MetricsReporter(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public synchronized void startLogging(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reporte-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleAtFixedRate(() -> System.out.println(metrics.report()), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void startHttp(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        System.out.println("Métricas disponibles en http://localhost:" + server.getAddress().getPort() + "/metrics");
+    }
+
+    // Para montar /metrics en un servidor que ya existe (por ejemplo RecommendationServer)
+    public HttpHandler handler() {
+        return this::handle;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = prometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    String prometheusText() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE query_latency_seconds summary\n");
+        text.append("# TYPE query_rows_total counter\n");
+        text.append("# TYPE query_errors_total counter\n");
+        text.append("# TYPE query_db_hits_total counter\n");
+        text.append("# TYPE query_profiled_total counter\n");
+        for (QueryStats stats : metrics.snapshot()) {
+            String label = "query=\"" + escape(stats.getName()) + "\"";
+            quantile(text, label, "0.5", stats.getP50Nanos());
+            quantile(text, label, "0.99", stats.getP99Nanos());
+            quantile(text, label, "0.999", stats.getP999Nanos());
+            text.append("query_latency_seconds_sum{").append(label).append("} ")
+                .append(seconds(stats.getMeanNanos() * stats.getCalls())).append('\n');
+            text.append("query_latency_seconds_count{").append(label).append("} ").append(stats.getCalls()).append('\n');
+            text.append("query_rows_total{").append(label).append("} ").append(stats.getRows()).append('\n');
+            text.append("query_errors_total{").append(label).append("} ").append(stats.getErrors()).append('\n');
+            if (stats.getProfiledCalls() > 0) {
+                text.append("query_db_hits_total{").append(label).append("} ").append(stats.getDbHits()).append('\n');
+                text.append("query_profiled_total{").append(label).append("} ").append(stats.getProfiledCalls()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    private static void quantile(StringBuilder text, String label, String quantile, long nanos) {
+        text.append("query_latency_seconds{").append(label).append(",quantile=\"").append(quantile).append("\"} ")
+            .append(seconds(nanos)).append('\n');
+    }
+
+    private static String seconds(double nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
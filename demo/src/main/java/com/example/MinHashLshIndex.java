@@ -0,0 +1,253 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Índice aproximado de usuarios similares por Jaccard de sus conjuntos de LIKES.
+// Cada usuario tiene una firma MinHash de bands * rowsPerBand valores; la firma se corta en bandas
+// y dos usuarios son candidatos si coinciden en alguna banda completa. Los candidatos se verifican
+// con el Jaccard exacto sobre las listas CSR, así que los falsos positivos no afectan al resultado.
+// Más bandas con menos filas suben el recall y el costo; el umbral aproximado es (1/bands)^(1/rowsPerBand).
+public final class MinHashLshIndex {
+    public static final int DEFAULT_BANDS = 32;
+    public static final int DEFAULT_ROWS_PER_BAND = 2;
+    public static final int DEFAULT_MAX_BUCKET_SCAN = 1000;
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final long PRIME = (1L << 31) - 1;
+
+    private final CsrAdjacency likes;    // usuario -> juego, vecinos ordenados
+    private final CsrAdjacency likedBy;  // juego -> usuario, para el modo exacto
+    private final int bands;
+    private final int rowsPerBand;
+    private final int maxBucketScan;
+    private final long[] hashA;
+    private final long[] hashB;
+    private final int[] signatures;      // userCount * bands * rowsPerBand
+    private final long[][] buckets;      // por banda: (hash de banda << 32 | usuario) ordenado
+    // Acumulador por hilo, se limpia en cada consulta en lugar de reservar O(usuarios) cada vez
+    private final ThreadLocal<ScoreAccumulator> scratch;
+
+    public MinHashLshIndex(CsrAdjacency likes, CsrAdjacency likedBy) {
+        this(likes, likedBy, DEFAULT_BANDS, DEFAULT_ROWS_PER_BAND, DEFAULT_MAX_BUCKET_SCAN, DEFAULT_SEED);
+    }
+
+    public MinHashLshIndex(CsrAdjacency likes, CsrAdjacency likedBy, int bands, int rowsPerBand,
+                           int maxBucketScan, long seed) {
+        if (bands <= 0 || rowsPerBand <= 0 || maxBucketScan <= 0) {
+            throw new IllegalArgumentException("bands, rowsPerBand y maxBucketScan deben ser positivos");
+        }
+        this.likes = likes;
+        this.likedBy = likedBy;
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.maxBucketScan = maxBucketScan;
+        this.scratch = ThreadLocal.withInitial(() -> new ScoreAccumulator(likes.nodeCount()));
+
+        int hashes = bands * rowsPerBand;
+        Random random = new Random(seed);
+        this.hashA = new long[hashes];
+        this.hashB = new long[hashes];
+        for (int i = 0; i < hashes; i++) {
+            hashA[i] = 1 + random.nextInt((int) PRIME - 1);
+            hashB[i] = random.nextInt((int) PRIME);
+        }
+
+        int userCount = likes.nodeCount();
+        this.signatures = new int[userCount * hashes];
+        for (int user = 0; user < userCount; user++) {
+            computeSignature(user);
+        }
+
+        // Los usuarios sin LIKES no entran en ningún cubo
+        this.buckets = new long[bands][];
+        for (int band = 0; band < bands; band++) {
+            long[] entries = new long[userCount];
+            int size = 0;
+            for (int user = 0; user < userCount; user++) {
+                if (likes.degree(user) > 0) {
+                    entries[size++] = ((long) bandHash(user, band) << 32) | user;
+                }
+            }
+            entries = Arrays.copyOf(entries, size);
+            Arrays.sort(entries);
+            buckets[band] = entries;
+        }
+    }
+
+    public static MinHashLshIndex build(CsrGraphBackend graph) {
+        return new MinHashLshIndex(graph.getLikes(), graph.getLikedBy());
+    }
+
+    // h_i(g) = (a_i * g + b_i) mod p; la firma guarda el mínimo de cada h_i sobre los juegos del usuario
+    private void computeSignature(int user) {
+        int hashes = hashA.length;
+        int base = user * hashes;
+        Arrays.fill(signatures, base, base + hashes, Integer.MAX_VALUE);
+        for (int l = likes.start(user); l < likes.end(user); l++) {
+            long game = likes.target(l);
+            for (int i = 0; i < hashes; i++) {
+                int value = (int) ((hashA[i] * game + hashB[i]) % PRIME);
+                if (value < signatures[base + i]) {
+                    signatures[base + i] = value;
+                }
+            }
+        }
+    }
+
+    // FNV-1a sobre las filas de la banda
+    private int bandHash(int user, int band) {
+        int offset = user * hashA.length + band * rowsPerBand;
+        int hash = 0x811C9DC5;
+        for (int r = 0; r < rowsPerBand; r++) {
+            hash = (hash ^ signatures[offset + r]) * 0x01000193;
+        }
+        return hash;
+    }
+
+    // Los k usuarios con mayor Jaccard entre los que comparten alguna banda con el usuario.
+    // Cada cubo se recorre como mucho maxBucketScan entradas para acotar la latencia con juegos muy populares.
+    // El cubo está ordenado por usuario, así que el recorrido empieza en una posición que depende del usuario
+    // y de la banda y da la vuelta al final: si no, el tope siempre se quedaría con los índices más bajos.
+    public TopKSelector similarUsers(int user, int k) {
+        TopKSelector selector = new TopKSelector(k);
+        if (likes.degree(user) == 0) {
+            return selector;
+        }
+        ScoreAccumulator candidates = scratch.get();
+        candidates.clear();
+        for (int band = 0; band < bands; band++) {
+            long[] entries = buckets[band];
+            long key = (long) bandHash(user, band) << 32;
+            int from = lowerBound(entries, key);
+            int size = upperBound(entries, key | 0xFFFFFFFFL) - from;
+            int offset = size <= maxBucketScan ? 0 : Math.floorMod(mix(user, band), size);
+            for (int scanned = 0; scanned < size && scanned < maxBucketScan; scanned++) {
+                int other = (int) entries[from + (offset + scanned) % size];
+                if (other != user) {
+                    candidates.add(other, 1);
+                }
+            }
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            int other = candidates.keyAt(i);
+            selector.offer(other, jaccard(user, other));
+        }
+        return selector;
+    }
+
+    // Mismo resultado sin aproximar: recorre usuario -> juego -> cada otro usuario que le da LIKES
+    public TopKSelector exactSimilarUsers(int user, int k) {
+        TopKSelector selector = new TopKSelector(k);
+        ScoreAccumulator common = scratch.get();
+        common.clear();
+        for (int l = likes.start(user); l < likes.end(user); l++) {
+            int game = likes.target(l);
+            for (int o = likedBy.start(game); o < likedBy.end(game); o++) {
+                int other = likedBy.target(o);
+                if (other != user) {
+                    common.add(other, 1);
+                }
+            }
+        }
+        for (int i = 0; i < common.size(); i++) {
+            int other = common.keyAt(i);
+            int shared = common.get(other);
+            selector.offer(other, (double) shared / (likes.degree(user) + likes.degree(other) - shared));
+        }
+        return selector;
+    }
+
+    // Fracción media de los k vecinos exactos que también devuelve el índice, sobre una muestra de usuarios
+    public double recall(int[] sampleUsers, int k) {
+        double total = 0;
+        int measured = 0;
+        for (int user : sampleUsers) {
+            int[] exact = exactSimilarUsers(user, k).drainKeys();
+            if (exact.length == 0) {
+                continue;
+            }
+            int[] approximate = similarUsers(user, k).drainKeys();
+            Arrays.sort(approximate);
+            int found = 0;
+            for (int other : exact) {
+                if (Arrays.binarySearch(approximate, other) >= 0) {
+                    found++;
+                }
+            }
+            total += (double) found / exact.length;
+            measured++;
+        }
+        return measured == 0 ? 1 : total / measured;
+    }
+
+    // Juegos en común; las listas CSR están ordenadas
+    public int intersection(int user, int other) {
+        int i = likes.start(user);
+        int j = likes.start(other);
+        int shared = 0;
+        while (i < likes.end(user) && j < likes.end(other)) {
+            int a = likes.target(i);
+            int b = likes.target(j);
+            if (a == b) {
+                shared++;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    public double jaccard(int user, int other) {
+        int shared = intersection(user, other);
+        int union = likes.degree(user) + likes.degree(other) - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    private static int lowerBound(long[] entries, long key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Primera posición con un valor mayor que key
+    private static int upperBound(long[] entries, long key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Mezcla de 32 bits (murmur3 fmix) para repartir los desplazamientos de inicio
+    private static int mix(int user, int band) {
+        int hash = user * 0x9E3779B9 + band;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    public int getBands() {return bands;}
+    public int getRowsPerBand() {return rowsPerBand;}
+    public int userCount() {return likes.nodeCount();}
+}
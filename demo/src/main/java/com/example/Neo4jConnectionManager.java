@@ -1,22 +1,57 @@
 package com.example;
 
+import org.neo4j.driver.AccessMode;
 import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
+import org.neo4j.driver.ConnectionPoolMetrics;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionCallback;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.Values;
 import org.neo4j.driver.Result;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class Neo4jConnectionManager {
     private final Driver driver;
+    private final ConnectionPoolSettings settings;
+    private final AtomicLong sessionsOpened = new AtomicLong();
+    private final AtomicLong sessionsClosed = new AtomicLong();
+    private final QueryMetrics metrics = new QueryMetrics();
 
     public Neo4jConnectionManager() {
         this("neo4j+s://6bc72245.databases.neo4j.io", "neo4j", "20z23qOU77VA4J4Em7y5D-0uMFc6f87tB5Q8upJSTsk");
     }
 
     public Neo4jConnectionManager(String uri, String usuario, String contraseña) {
-        driver = GraphDatabase.driver(uri, AuthTokens.basic(usuario, contraseña));
+        this(uri, usuario, contraseña, new ConnectionPoolSettings());
+    }
+
+    public Neo4jConnectionManager(String uri, String usuario, String contraseña, ConnectionPoolSettings settings) {
+        this.settings = settings;
+        Config config = Config.builder()
+            .withMaxConnectionPoolSize(settings.getMaxConnectionPoolSize())
+            .withConnectionAcquisitionTimeout(settings.getConnectionAcquisitionTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .withFetchSize(settings.getFetchSize())
+            .withMaxTransactionRetryTime(settings.getMaxTransactionRetryTime().toMillis(), TimeUnit.MILLISECONDS)
+            .withDriverMetrics()
+            .build();
+        driver = GraphDatabase.driver(uri, AuthTokens.basic(usuario, contraseña), config);
+        CypherQueries.registerNames(metrics);
     }
 
     public void cerrar() {
@@ -24,20 +59,179 @@ public class Neo4jConnectionManager {
     }
 
     public void probarConexion() {
-        try (Session session = driver.session()) {
-            String saludo = session.run("RETURN '¡Hola desde Neo4j!'").single().get(0).asString();
-            System.out.println(saludo);
+        String saludo = executeRead(tx -> tx.run("RETURN '¡Hola desde Neo4j!'").single().get(0).asString());
+        System.out.println(saludo);
+    }
+
+    // Ejecuta una función transaccional de lectura con reintentos; la sesión se cierra siempre.
+    // El tiempo se registra con el nombre indicado (reintentos incluidos).
+    public <T> T executeRead(String name, TransactionCallback<T> work) {
+        return metrics.time(name, () -> read(work));
+    }
+
+    public <T> T executeRead(TransactionCallback<T> work) {
+        return executeRead("transaccion.lectura", work);
+    }
+
+    // Ejecuta una función transaccional de escritura con reintentos; la sesión se cierra siempre
+    public <T> T executeWrite(String name, TransactionCallback<T> work) {
+        return metrics.time(name, () -> {
+            Session session = openSession(AccessMode.WRITE);
+            try {
+                return session.executeWrite(work);
+            } finally {
+                closeSession(session);
+            }
+        });
+    }
+
+    public <T> T executeWrite(TransactionCallback<T> work) {
+        return executeWrite("transaccion.escritura", work);
+    }
+
+    private <T> T read(TransactionCallback<T> work) {
+        Session session = openSession(AccessMode.READ);
+        try {
+            return session.executeRead(work);
+        } finally {
+            closeSession(session);
+        }
+    }
+
+    // Lee todas las filas y las convierte con el mapper antes de cerrar la sesión.
+    // Las ejecuciones muestreadas van con PROFILE, que devuelve las mismas filas más los db hits.
+    public <T> List<T> readList(String query, Value parameters, Function<Record, T> mapper) {
+        String name = metrics.nameOf(query);
+        boolean profile = metrics.shouldProfile();
+        return metrics.time(name, () -> read(tx -> {
+            List<T> rows = new ArrayList<>();
+            Result result = tx.run(profile ? "PROFILE " + query : query, parameters);
+            while (result.hasNext()) {
+                rows.add(mapper.apply(result.next()));
+            }
+            if (profile) {
+                ResultSummary summary = result.consume();
+                if (summary.hasProfile()) {
+                    metrics.recordProfile(name, summary.profile());
+                }
+            }
+            return rows;
+        }));
+    }
+
+    public <T> List<T> readList(String query, Function<Record, T> mapper) {
+        return readList(query, Values.parameters(), mapper);
+    }
+
+    // Entrega cada fila al callback a medida que llega (en lotes de fetchSize).
+    // Si la transacción se reintenta el callback puede volver a recibir filas ya vistas.
+    public void readEach(String query, Value parameters, Consumer<Record> callback) {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        boolean failed = true;
+        try {
+            read(tx -> {
+                rows.set(0);
+                Result result = tx.run(query, parameters);
+                while (result.hasNext()) {
+                    callback.accept(result.next());
+                    rows.incrementAndGet();
+                }
+                return null;
+            });
+            failed = false;
+        } finally {
+            metrics.record(metrics.nameOf(query), System.nanoTime() - start, rows.get(), failed);
+        }
+    }
+
+    public void readEach(String query, Consumer<Record> callback) {
+        readEach(query, Values.parameters(), callback);
+    }
+
+    // Ejecuta una escritura y descarta el resultado
+    public void write(String query, Value parameters) {
+        executeWrite(metrics.nameOf(query), tx -> tx.run(query, parameters).consume());
+    }
+
+    // Plan de la consulta sin ejecutarla; Neo4j lo deja en su caché de planes.
+    // Sesión de escritura porque algunas consultas escriben, aunque EXPLAIN no las ejecute.
+    public Plan explain(String query, Value parameters) {
+        Session session = openSession(AccessMode.WRITE);
+        try {
+            return session.run("EXPLAIN " + query, parameters).consume().plan();
+        } finally {
+            closeSession(session);
         }
     }
 
-    public Result executeQuery(String query, Value parameters) {
-    Session session = driver.session();
-    return session.run(query, parameters);
-    // Nota: Ahora el llamador es responsable de cerrar la sesión
+    // Variante asíncrona de readList sobre la sesión async del driver: no bloquea ningún hilo
+    // mientras la consulta está en vuelo. La sesión se cierra al terminar, con éxito o con error.
+    public <T> CompletableFuture<List<T>> readListAsync(String query, Value parameters, Function<Record, T> mapper) {
+        return metrics.timeAsync(metrics.nameOf(query), () -> {
+            AsyncSession session = openAsyncSession(AccessMode.READ);
+            return session.executeReadAsync(tx -> tx.runAsync(query, parameters)
+                    .thenCompose(cursor -> cursor.listAsync(mapper)))
+                .handle((rows, error) -> session.closeAsync().handle((ignored, closeError) -> {
+                    sessionsClosed.incrementAndGet();
+                    if (error != null) {
+                        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                    }
+                    return rows;
+                }))
+                .thenCompose(stage -> stage)
+                .toCompletableFuture();
+        });
+    }
+
+    public ConnectionPoolStats getPoolStats() {
+        int inUse = 0;
+        int idle = 0;
+        int acquiring = 0;
+        long acquired = 0;
+        long timedOut = 0;
+        long acquisitionTime = 0;
+        for (ConnectionPoolMetrics pool : driver.metrics().connectionPoolMetrics()) {
+            inUse += pool.inUse();
+            idle += pool.idle();
+            acquiring += pool.acquiring();
+            acquired += pool.acquired();
+            timedOut += pool.timedOutToAcquire();
+            acquisitionTime += pool.totalAcquisitionTime();
+        }
+        return new ConnectionPoolStats(sessionsOpened.get(), sessionsClosed.get(),
+            inUse, idle, acquiring, acquired, timedOut, acquisitionTime);
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ConnectionPoolSettings getSettings() {
+        return settings;
+    }
+
+    private Session openSession(AccessMode accessMode) {
+        Session session = driver.session(SessionConfig.builder()
+            .withDefaultAccessMode(accessMode)
+            .withFetchSize(settings.getFetchSize())
+            .build());
+        sessionsOpened.incrementAndGet();
+        return session;
+    }
+
+    private AsyncSession openAsyncSession(AccessMode accessMode) {
+        AsyncSession session = driver.session(AsyncSession.class, SessionConfig.builder()
+            .withDefaultAccessMode(accessMode)
+            .withFetchSize(settings.getFetchSize())
+            .build());
+        sessionsOpened.incrementAndGet();
+        return session;
     }
 
-    public Result executeQuery(String query) {
-        return executeQuery(query, Values.parameters());
+    private void closeSession(Session session) {
+        session.close();
+        sessionsClosed.incrementAndGet();
     }
 
     public Driver getDriver() {
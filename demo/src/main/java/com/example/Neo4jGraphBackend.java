@@ -0,0 +1,170 @@
+package com.example;
+
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Backend que resuelve las recomendaciones colaborativas con Cypher en el servidor
+public class Neo4jGraphBackend implements GraphBackend {
+    public static final int DEFAULT_MAX_INTERMEDIARIES = 50;
+    public static final int DEFAULT_MAX_FAN_OUT = 100;
+    public static final long DEFAULT_EXACT_PATH_BUDGET = 5_000;
+
+    private final Neo4jConnectionManager connectionManager;
+    private final int maxIntermediaries;
+    private final int maxFanOut;
+    private final long exactPathBudget;
+
+    public Neo4jGraphBackend(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_MAX_INTERMEDIARIES, DEFAULT_MAX_FAN_OUT, DEFAULT_EXACT_PATH_BUDGET);
+    }
+
+    public Neo4jGraphBackend(Neo4jConnectionManager connectionManager, int maxIntermediaries, int maxFanOut,
+                             long exactPathBudget) {
+        if (maxIntermediaries <= 0 || maxFanOut <= 0 || exactPathBudget < 0) {
+            throw new IllegalArgumentException("maxIntermediaries y maxFanOut deben ser positivos y exactPathBudget no negativo");
+        }
+        this.connectionManager = connectionManager;
+        this.maxIntermediaries = maxIntermediaries;
+        this.maxFanOut = maxFanOut;
+        this.exactPathBudget = exactPathBudget;
+    }
+
+    @Override
+    public List<Recomendacion> recommendGamesByFriends(String userId, int maxRecommendations) {
+        List<Recomendacion> directRows = connectionManager.readList(CypherQueries.FRIENDS_QUERY,
+            Values.parameters("userId", userId, "limit", maxRecommendations * 2), record -> toRow(record, "friendCount"));
+
+        // Si hay pocas recomendaciones, buscar con amigos de amigos con el plan que permitan los grados
+        List<Recomendacion> extendedRows = Collections.emptyList();
+        if (directRows.size() < maxRecommendations) {
+            String plan = chooseFriendsOfFriendsPlan(connectionManager.readList(CypherQueries.FRIEND_DEGREES_QUERY,
+                Values.parameters("userId", userId), record -> record.get("twoHopPaths").asLong(0)).get(0));
+            if (plan != null) {
+                extendedRows = connectionManager.readList(plan, friendsOfFriendsParameters(userId, maxRecommendations),
+                    record -> toRow(record, "fofCount"));
+            }
+        }
+
+        return mergeFriendScores(directRows, extendedRows, maxRecommendations);
+    }
+
+    // Los amigos directos y los grados se piden a la vez; amigos de amigos solo se consulta si hace falta,
+    // igual que en la versión síncrona.
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesByFriendsAsync(String userId, int maxRecommendations) {
+        CompletableFuture<List<Recomendacion>> direct = connectionManager.readListAsync(CypherQueries.FRIENDS_QUERY,
+            Values.parameters("userId", userId, "limit", maxRecommendations * 2), record -> toRow(record, "friendCount"));
+        CompletableFuture<List<Long>> degrees = connectionManager.readListAsync(CypherQueries.FRIEND_DEGREES_QUERY,
+            Values.parameters("userId", userId), record -> record.get("twoHopPaths").asLong(0));
+
+        return direct.thenCombine(degrees, (directRows, twoHopPaths) -> {
+            String plan = directRows.size() < maxRecommendations ? chooseFriendsOfFriendsPlan(twoHopPaths.get(0)) : null;
+            if (plan == null) {
+                return CompletableFuture.completedFuture(mergeFriendScores(directRows, Collections.emptyList(), maxRecommendations));
+            }
+            return connectionManager.readListAsync(plan, friendsOfFriendsParameters(userId, maxRecommendations),
+                    record -> toRow(record, "fofCount"))
+                .thenApply(extendedRows -> mergeFriendScores(directRows, extendedRows, maxRecommendations));
+        }).thenCompose(stage -> stage);
+    }
+
+    // Sin caminos a dos saltos basta con los amigos directos; por debajo del presupuesto el plan exacto
+    // es barato, y por encima se acota la expansión de los intermediarios
+    String chooseFriendsOfFriendsPlan(long twoHopPaths) {
+        if (twoHopPaths == 0) {
+            return null;
+        }
+        return twoHopPaths <= exactPathBudget ? CypherQueries.FRIENDS_OF_FRIENDS_QUERY : CypherQueries.CAPPED_FRIENDS_OF_FRIENDS_QUERY;
+    }
+
+    private Value friendsOfFriendsParameters(String userId, int maxRecommendations) {
+        return Values.parameters("userId", userId, "limit", maxRecommendations * 2,
+            "maxIntermediaries", maxIntermediaries, "maxFanOut", maxFanOut);
+    }
+
+    private List<Recomendacion> mergeFriendScores(List<Recomendacion> directRows, List<Recomendacion> extendedRows,
+                                                  int maxRecommendations) {
+        StringDictionary gameIds = new StringDictionary();
+        List<String> gameNames = new ArrayList<>();
+        ScoreAccumulator gameScores = new ScoreAccumulator(directRows.size() + extendedRows.size());
+
+        for (Recomendacion row : directRows) {
+            gameScores.add(gameKey(gameIds, gameNames, row), row.getPuntuacion());
+        }
+
+        for (Recomendacion row : extendedRows) {
+            if (gameScores.size() >= maxRecommendations * 2) {
+                break;
+            }
+            // Peso menor para amigos de amigos
+            gameScores.add(gameKey(gameIds, gameNames, row), row.getPuntuacion() / 2);
+        }
+
+        return toRecommendations(gameIds, gameNames, gameScores, maxRecommendations);
+    }
+
+    // Las filas llegan agrupadas por juego y ya en el orden final
+    @Override
+    public List<Recomendacion> recommendGamesBySimilarUsers(String userId, int maxRecommendations) {
+        return connectionManager.readList(CypherQueries.SIMILAR_USERS_QUERY,
+            similarUsersParameters(userId, maxRecommendations, null), record -> toRow(record, "score"));
+    }
+
+    @Override
+    public CompletableFuture<List<Recomendacion>> recommendGamesBySimilarUsersAsync(String userId, int maxRecommendations) {
+        return connectionManager.readListAsync(CypherQueries.SIMILAR_USERS_QUERY,
+            similarUsersParameters(userId, maxRecommendations, null), record -> toRow(record, "score"));
+    }
+
+    @Override
+    public RecommendationPage recommendGamesBySimilarUsersPage(String userId, int pageSize, String cursor) {
+        return RecommendationPage.of(connectionManager.readList(CypherQueries.SIMILAR_USERS_QUERY,
+                similarUsersParameters(userId, pageSize + 1, RecommendationPage.Cursor.decode(cursor)),
+                record -> toRow(record, "score")),
+            pageSize);
+    }
+
+    private static Value similarUsersParameters(String userId, int limit, RecommendationPage.Cursor after) {
+        return Values.parameters("userId", userId, "limit", limit,
+            "afterScore", after == null ? null : after.getScore(),
+            "afterGameId", after == null ? null : after.getGameId());
+    }
+
+    private static int gameKey(StringDictionary gameIds, List<String> gameNames, Recomendacion row) {
+        int key = gameIds.idOf(row.getJuegoId());
+        if (key == gameNames.size()) {
+            gameNames.add(row.getJuegoNombre());
+        }
+        return key;
+    }
+
+    private static Recomendacion toRow(Record record, String scoreField) {
+        return new Recomendacion(
+            record.get("gameId").asString(),
+            record.get("gameName").asString(),
+            record.get(scoreField).asInt(),
+            Recomendacion.TipoRecomendacion.COLABORATIVA);
+    }
+
+    // Los empates se resuelven por id de juego para que el orden no dependa del orden de las filas
+    private static List<Recomendacion> toRecommendations(StringDictionary gameIds, List<String> gameNames,
+                                                         ScoreAccumulator gameScores, int maxRecommendations) {
+        TopKSelector selector = new TopKSelector(maxRecommendations,
+            (a, b) -> gameIds.valueOf(a).compareTo(gameIds.valueOf(b)));
+        gameScores.offerTo(selector);
+
+        int[] ordered = selector.drainKeys();
+        List<Recomendacion> recommendations = new ArrayList<>(ordered.length);
+        for (int game : ordered) {
+            recommendations.add(new Recomendacion(
+                gameIds.valueOf(game),
+                gameNames.get(game),
+                gameScores.get(game),
+                Recomendacion.TipoRecomendacion.COLABORATIVA));
+        }
+        return recommendations;
+    }
+}
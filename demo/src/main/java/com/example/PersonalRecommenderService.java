@@ -4,342 +4,235 @@ import org.neo4j.driver.*;
 import org.neo4j.driver.Record;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class PersonalRecommenderService {
     private final Neo4jConnectionManager connectionManager;
-    private final Map<String, Set<String>> genreGamesMap;
-    private final Map<String, Set<String>> platformGamesMap;
-    private final Map<String, Set<String>> developerGamesMap;
-    
+    // Opcional: con él, el top por género se resuelve en memoria
+    private final ColumnarCatalog columnarCatalog;
+
     public PersonalRecommenderService(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, null);
+    }
+
+    public PersonalRecommenderService(Neo4jConnectionManager connectionManager, ColumnarCatalog columnarCatalog) {
         this.connectionManager = connectionManager;
-        this.genreGamesMap = new HashMap<>();
-        this.platformGamesMap = new HashMap<>();
-        this.developerGamesMap = new HashMap<>();
-        
-        // Inicializar los mapas con datos de la base de datos
-        initializeCategoryMaps();
+        this.columnarCatalog = columnarCatalog;
     }
 
-    private void initializeCategoryMaps() {
-        // Juegos por género
-        Session genreSession = connectionManager.getDriver().session();
-        Result genreResult = genreSession.run(
-            "MATCH (game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre) " +
-            "RETURN game.nombre as gameName, genre.name as genreName"
-        );
-    
-        while (genreResult.hasNext()) {
-            Record record = genreResult.next();
-            String gameName = record.get("gameName").asString();
-            String genreName = record.get("genreName").asString();
-        
-            genreGamesMap.computeIfAbsent(genreName, k -> new HashSet<>()).add(gameName);
-        }
-        genreSession.close();
-    
-        // Juegos por plataforma
-        Session platformSession = connectionManager.getDriver().session();
-        Result platformResult = platformSession.run(
-            "MATCH (game:Videojuego)-[:AVAILABLE_ON]->(platform:Platform) " +
-            "RETURN platform.name as platformName"
-        );
-    
-        while (platformResult.hasNext()) {
-            Record record = platformResult.next();
-            String gameName = record.get("gameName").asString();
-            String platformName = record.get("platformName").asString();
-        
-            platformGamesMap.computeIfAbsent(platformName, k -> new HashSet<>()).add(gameName);
-        }
-        platformSession.close();
-    
-        // Juegos por desarrollador
-        Session developerSession = connectionManager.getDriver().session();
-        Result developerResult = developerSession.run(
-            "MATCH (game:Videojuego)-[:DEVELOPED_BY]->(developer:Developer) " +
-            "RETURN developer.name as developerName"
-        );
-    
-        while (developerResult.hasNext()) {
-            Record record = developerResult.next();
-            String gameName = record.get("gameName").asString();
-            String developerName = record.get("developerName").asString();
-        
-            developerGamesMap.computeIfAbsent(developerName, k -> new HashSet<>()).add(gameName);
+    public List<Recomendacion> recommendGamesByGame(String gameId, int maxRecommendations) {
+        return connectionManager.getMetrics().time("recomendador.juego",
+            () -> findGamesByGame(gameId, maxRecommendations));
+    }
+
+    private List<Recomendacion> findGamesByGame(String gameId, int maxRecommendations) {
+        Value parameters = Values.parameters("gameId", gameId, "limit", maxRecommendations);
+        List<Recomendacion> similar = connectionManager.readList(CypherQueries.SIMILAR_GAMES_QUERY, parameters,
+            PersonalRecommenderService::toSharedAttributeRow);
+        if (!similar.isEmpty()) {
+            return similar;
         }
-        developerSession.close();
+
+        // Sin SIMILAR_TO (juego nuevo o trabajo sin ejecutar): cuenta los atributos compartidos en el servidor
+        return toGameRecommendations(connectionManager.readList(CypherQueries.SHARED_ATTRIBUTES_QUERY, parameters,
+            PersonalRecommenderService::toSharedAttributeRow));
+    }
+
+    public CompletableFuture<List<Recomendacion>> recommendGamesByGameAsync(String gameId, int maxRecommendations) {
+        return connectionManager.getMetrics().timeAsync("recomendador.juegoAsync",
+            () -> findGamesByGameAsync(gameId, maxRecommendations));
     }
 
-    public List<Recomendacion> recommendGamesByGame(String tituloJuego, int maxRecommendations) {
-        // Buscar el juego base
-        Value baseGameNode = findGameNode(tituloJuego);
-        if (baseGameNode == null) {
+    private CompletableFuture<List<Recomendacion>> findGamesByGameAsync(String gameId, int maxRecommendations) {
+        Value parameters = Values.parameters("gameId", gameId, "limit", maxRecommendations);
+        return connectionManager.readListAsync(CypherQueries.SIMILAR_GAMES_QUERY, parameters, PersonalRecommenderService::toSharedAttributeRow)
+            .thenCompose(similar -> similar.isEmpty()
+                ? connectionManager.readListAsync(CypherQueries.SHARED_ATTRIBUTES_QUERY, parameters, PersonalRecommenderService::toSharedAttributeRow)
+                    .thenApply(this::toGameRecommendations)
+                : CompletableFuture.completedFuture(similar));
+    }
+
+    private static Recomendacion toSharedAttributeRow(Record record) {
+        return record.get("gameId").isNull() ? null : new Recomendacion(
+            record.get("gameId").asString(),
+            record.get("gameName").asString(null),
+            record.get("score").asInt(),
+            Recomendacion.TipoRecomendacion.PERSONAL);
+    }
+
+    private List<Recomendacion> toGameRecommendations(List<Recomendacion> rows) {
+        if (rows.isEmpty()) {
             System.out.println("Juego base no encontrado en la base de datos");
             return Collections.emptyList();
         }
-        
-        // Obtener atributos del juego base
-        List<Value> baseAttributes = getGameAttributes(baseGameNode);
-        
-        // Mapa para almacenar puntuaciones de juegos
-        Map<String, Integer> gameScores = new HashMap<>();
-        Map<String, String> gameNames = new HashMap<>();
-        
-        // Para cada atributo, encontrar juegos que lo comparten
-        for (Value attribute : baseAttributes) {
-            List<Map<String, Object>> gamesWithAttribute = getGamesWithAttribute(attribute);
-            
-            // Actualizar puntuaciones
-            for (Map<String, Object> gameInfo : gamesWithAttribute) {
-                String gameName = (String) gameInfo.get("nombre");
-                
-                if (!gameName.equals(tituloJuego)) {
-                    gameScores.put(gameName, gameScores.getOrDefault(gameName, 0) + 1);
-                    gameNames.put(gameName, gameName);
-                }
+
+        // El juego base sin atributos compartidos devuelve una fila vacía
+        List<Recomendacion> recommendations = new ArrayList<>(rows.size());
+        for (Recomendacion row : rows) {
+            if (row != null) {
+                recommendations.add(row);
             }
         }
-        
-        // Convertir a lista de recomendaciones
-        List<Recomendacion> recommendations = gameScores.entrySet().stream()
-            .map(entry -> new Recomendacion(
-                entry.getKey(), 
-                gameNames.get(entry.getKey()), 
-                entry.getValue(), 
-                Recomendacion.TipoRecomendacion.PERSONAL))
-            .sorted(Comparator.comparing(Recomendacion::getPuntuacion).reversed())
-            .limit(maxRecommendations)
-            .collect(Collectors.toList());
-        
+
         return recommendations;
     }
 
     public List<Recomendacion> recommendGamesByUserPreferences(String userId, int maxRecommendations) {
+        return connectionManager.getMetrics().time("recomendador.preferencias",
+            () -> findGamesByUserPreferences(userId, maxRecommendations));
+    }
+
+    private List<Recomendacion> findGamesByUserPreferences(String userId, int maxRecommendations) {
+        return findGamesByUserPreferences(userId, maxRecommendations, null);
+    }
+
+    public RecommendationPage recommendGamesByUserPreferencesPage(String userId, int pageSize, String cursor) {
+        RecommendationPage.Cursor after = RecommendationPage.Cursor.decode(cursor);
+        return connectionManager.getMetrics().time("recomendador.preferenciasPagina",
+            () -> RecommendationPage.of(findGamesByUserPreferences(userId, pageSize + 1, after), pageSize));
+    }
+
+    private List<Recomendacion> findGamesByUserPreferences(String userId, int limit, RecommendationPage.Cursor after) {
         // Obtener géneros preferidos del usuario
         Set<String> preferredGenres = getUserPreferredGenres(userId);
         
         // Obtener plataformas preferidas del usuario
         Set<String> preferredPlatforms = getUserPreferredPlatforms(userId);
         
-        // Mapa para almacenar puntuaciones de juegos
-        Map<String, Integer> gameScores = new HashMap<>();
-        Map<String, String> gameNames = new HashMap<>();
-        
         // Obtener juegos que el usuario ha jugado o le han gustado
         Set<String> userGames = getUserGames(userId);
         
-        // Consulta para obtener juegos que coinciden con las preferencias del usuario
-        StringBuilder queryBuilder = new StringBuilder();
-        queryBuilder.append("MATCH (game:Videojuego) ");
-        
-        // Añadir condiciones de género si hay géneros preferidos
-        if (!preferredGenres.isEmpty()) {
-            queryBuilder.append("MATCH (game)-[:BELONGS_TO_GENRE]->(genre:Genre) ");
-            queryBuilder.append("WHERE genre.name IN $genres ");
-        }
-        
-        // Añadir condiciones de plataforma si hay plataformas preferidas
-        if (!preferredPlatforms.isEmpty()) {
-            if (!preferredGenres.isEmpty()) {
-                queryBuilder.append("AND ");
-            } else {
-                queryBuilder.append("WHERE ");
-            }
-            queryBuilder.append("(game)-[:AVAILABLE_ON]->(:Platform) WHERE platform.name IN $platforms ");
-        }
-        
-        // Excluir juegos que el usuario ya ha jugado
-        if (!userGames.isEmpty()) {
-            if (preferredGenres.isEmpty() && preferredPlatforms.isEmpty()) {
-                queryBuilder.append("WHERE ");
-            } else {
-                queryBuilder.append("AND ");
-            }
-            queryBuilder.append("NOT game.id IN $userGames ");
-        }
-        
-        queryBuilder.append("RETURN game.id as gameId, game.nombre as gameName");
-        
-        // Parámetros para la consulta
+        // Ejecutar la consulta: puntúa, ordena y corta en el servidor
+        return connectionManager.readList(
+            preferenceQuery(preferredGenres, preferredPlatforms),
+            preferenceParameters(preferredGenres, preferredPlatforms, userGames, limit, after),
+            PersonalRecommenderService::toPreferenceRow);
+    }
+
+    // Las tres consultas del perfil del usuario son independientes y se lanzan a la vez
+    public CompletableFuture<List<Recomendacion>> recommendGamesByUserPreferencesAsync(String userId, int maxRecommendations) {
+        return connectionManager.getMetrics().timeAsync("recomendador.preferenciasAsync",
+            () -> findGamesByUserPreferencesAsync(userId, maxRecommendations));
+    }
+
+    private CompletableFuture<List<Recomendacion>> findGamesByUserPreferencesAsync(String userId, int maxRecommendations) {
+        CompletableFuture<Set<String>> genresFuture = readSetAsync(CypherQueries.USER_GENRES_QUERY, userId, "genreName");
+        CompletableFuture<Set<String>> platformsFuture = readSetAsync(CypherQueries.USER_PLATFORMS_QUERY, userId, "platformName");
+        CompletableFuture<Set<String>> userGamesFuture = readSetAsync(CypherQueries.USER_GAMES_QUERY, userId, "gameId");
+
+        return CompletableFuture.allOf(genresFuture, platformsFuture, userGamesFuture).thenCompose(ignored -> {
+            Set<String> preferredGenres = genresFuture.join();
+            Set<String> preferredPlatforms = platformsFuture.join();
+            Set<String> userGames = userGamesFuture.join();
+
+            return connectionManager.readListAsync(
+                preferenceQuery(preferredGenres, preferredPlatforms),
+                preferenceParameters(preferredGenres, preferredPlatforms, userGames, maxRecommendations, null),
+                PersonalRecommenderService::toPreferenceRow);
+        });
+    }
+
+    private CompletableFuture<Set<String>> readSetAsync(String query, String userId, String field) {
+        return connectionManager.readListAsync(query, Values.parameters("userId", userId), record -> record.get(field).asString())
+            .thenApply(HashSet::new);
+    }
+
+    // Sin géneros ni plataformas no hay nada que puntuar: se recorre el índice de ids en orden
+    private static String preferenceQuery(Set<String> preferredGenres, Set<String> preferredPlatforms) {
+        return preferredGenres.isEmpty() && preferredPlatforms.isEmpty()
+            ? CypherQueries.NO_PREFERENCES_QUERY
+            : CypherQueries.PREFERENCES_QUERY;
+    }
+
+    // Parámetros para la consulta
+    private static Value preferenceParameters(Set<String> preferredGenres, Set<String> preferredPlatforms, Set<String> userGames,
+                                              int limit, RecommendationPage.Cursor after) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("genres", preferredGenres.toArray());
         parameters.put("platforms", preferredPlatforms.toArray());
         parameters.put("userGames", userGames.toArray());
-        
-        // Ejecutar la consulta
-        Result result = connectionManager.executeQuery(queryBuilder.toString(), Values.value(parameters));
-        
-        // Procesar resultados
-        while (result.hasNext()) {
-            Record record = result.next();
-            String gameName = record.get("gameName").asString();
-            
-            // Calcular puntuación basada en cuántos criterios cumple
-            int score = 0;
-            
-            // Verificar coincidencias de género
-            for (String genre : preferredGenres) {
-                if (genreGamesMap.getOrDefault(genre, Collections.emptySet()).contains(gameName)) {
-                    score += 2; // Mayor peso a coincidencias de género
-                }
-            }
-            
-            // Verificar coincidencias de plataforma
-            for (String platform : preferredPlatforms) {
-                if (platformGamesMap.getOrDefault(platform, Collections.emptySet()).contains(gameName)) {
-                    score += 1; // Menor peso a coincidencias de plataforma
-                }
-            }
-            
-            gameScores.put(gameName, score);
-            gameNames.put(gameName, gameName);
-        }
-        
-        // Convertir a lista de recomendaciones
-        List<Recomendacion> recommendations = gameScores.entrySet().stream()
-            .map(entry -> new Recomendacion(
-                entry.getKey(), 
-                gameNames.get(entry.getKey()), 
-                entry.getValue(), 
-                Recomendacion.TipoRecomendacion.PERSONAL))
-            .sorted(Comparator.comparing(Recomendacion::getPuntuacion).reversed())
-            .limit(maxRecommendations)
-            .collect(Collectors.toList());
-        
-        return recommendations;
+        parameters.put("limit", limit);
+        parameters.put("afterScore", after == null ? null : after.getScore());
+        parameters.put("afterGameId", after == null ? null : after.getGameId());
+        return Values.value(parameters);
+    }
+
+    private static Recomendacion toPreferenceRow(Record record) {
+        return new Recomendacion(
+            record.get("gameId").asString(),
+            record.get("gameName").asString(null),
+            record.get("score").asInt(),
+            Recomendacion.TipoRecomendacion.PERSONAL);
     }
 
     private Set<String> getUserPreferredGenres(String userId) {
-        Set<String> genres = new HashSet<>();
-        
-        String query = 
-            "MATCH (user:User {id: $userId})-[:LIKES]->(game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre) " +
-            "RETURN DISTINCT genre.name as genreName";
-        
-        Result result = connectionManager.executeQuery(query, Values.parameters("userId", userId));
-        
-        while (result.hasNext()) {
-            genres.add(result.next().get("genreName").asString());
-        }
-        
-        return genres;
+        return new HashSet<>(connectionManager.readList(CypherQueries.USER_GENRES_QUERY, Values.parameters("userId", userId),
+            record -> record.get("genreName").asString()));
     }
 
     private Set<String> getUserPreferredPlatforms(String userId) {
-        Set<String> platforms = new HashSet<>();
-        
-        String query = 
-            "MATCH (user:User {id: $userId})-[:LIKES]->(game:Videojuego)-[:AVAILABLE_ON]->(platform:Platform) " +
-            "RETURN DISTINCT platform.name as platformName";
-        
-        Result result = connectionManager.executeQuery(query, Values.parameters("userId", userId));
-        
-        while (result.hasNext()) {
-            platforms.add(result.next().get("platformName").asString());
-        }
-        
-        return platforms;
+        return new HashSet<>(connectionManager.readList(CypherQueries.USER_PLATFORMS_QUERY, Values.parameters("userId", userId),
+            record -> record.get("platformName").asString()));
     }
 
     private Set<String> getUserGames(String userId) {
-        Set<String> games = new HashSet<>();
-        
-        String query = 
-            "MATCH (user:User {id: $userId})-[:PLAYED|LIKES]->(game:Videojuego) " +
-            "RETURN DISTINCT game.name as gameName";
-        
-        Result result = connectionManager.executeQuery(query, Values.parameters("userId", userId));
-        
-        while (result.hasNext()) {
-            games.add(result.next().get("gameName").asString());
-        }
-        
-        return games;
+        return new HashSet<>(connectionManager.readList(CypherQueries.USER_GAMES_QUERY, Values.parameters("userId", userId),
+            record -> record.get("gameId").asString()));
     }
 
-    private Value findGameNode(String gameName) {
-        Result result = connectionManager.executeQuery(
-            "MATCH (game:Videojuego {name: $name}) RETURN game",
-            Values.parameters("name", gameName)
-        );
-        
-        if (result.hasNext()) {
-            return result.next().get("game");
+    public void displayRecommendations(List<Recomendacion> recommendations) {
+        System.out.println("Recomendaciones personalizadas basadas en tus preferencias:");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Recomendacion rec = recommendations.get(i);
+            System.out.println((i+1) + ". " + rec.getJuegoNombre() + " (Puntuación: " + rec.getPuntuacion() + ")");
         }
-        return null;
     }
 
-    private List<Value> getGameAttributes(Value gameNode) {
-        List<Value> attributes = new ArrayList<>();
-        
-        Result result = connectionManager.executeQuery(
-            "MATCH (game:Videojuego)-[r]-(attribute) " +
-            "WHERE NAME(game) = $gameName " +
-            "RETURN type(r) as relationType, attribute",
-            Values.parameters("gameName", gameNode.asNode().id())
-        );
-        
-        while (result.hasNext()) {
-            Record record = result.next();
-            attributes.add(record.get("attribute"));
-        }
-        
-        return attributes;
+    public List<Recomendacion> recommendGamesByGenre(String genero, int maxRecommendations) {
+        return connectionManager.getMetrics().time("recomendador.genero",
+            () -> findGamesByGenre(genero, maxRecommendations));
     }
 
-    private List<Map<String, Object>> getGamesWithAttribute(Value attributeNode) {
-        List<Map<String, Object>> games = new ArrayList<>();
-        
-        Result result = connectionManager.executeQuery(
-            "MATCH (game:Videojuego)-[]-(attribute) " +
-            "WHERE ID(attribute) = $attributeId " +
-            "RETURN game.id as id, game.nombre as nombre",
-            Values.parameters("attributeId", attributeNode.asNode().id())
-        );
-        
-        while (result.hasNext()) {
-            Record record = result.next();
-            Map<String, Object> gameInfo = new HashMap<>();
-            gameInfo.put("id", record.get("id").asString());
-            gameInfo.put("nombre", record.get("nombre").asString());
-            games.add(gameInfo);
+    private List<Recomendacion> findGamesByGenre(String genero, int maxRecommendations) {
+        if (columnarCatalog != null) {
+            return findGamesByGenreLocally(genero, maxRecommendations);
         }
-        
-        return games;
+        return connectionManager.readList(CypherQueries.GENRE_TOP_QUERY,
+            Values.parameters("genero", genero, "limit", maxRecommendations),
+            PersonalRecommenderService::toGenreRow);
     }
 
-    public void displayRecommendations(List<Recomendacion> recommendations) {
-        System.out.println("Recomendaciones personalizadas basadas en tus preferencias:");
-        for (int i = 0; i < recommendations.size(); i++) {
-            Recomendacion rec = recommendations.get(i);
-            System.out.println((i+1) + ". " + rec.getJuegoNombre() + " (Puntuación: " + rec.getPuntuacion() + ")");
+    public CompletableFuture<List<Recomendacion>> recommendGamesByGenreAsync(String genero, int maxRecommendations) {
+        return connectionManager.getMetrics().timeAsync("recomendador.generoAsync",
+            () -> findGamesByGenreAsync(genero, maxRecommendations));
+    }
+
+    private CompletableFuture<List<Recomendacion>> findGamesByGenreAsync(String genero, int maxRecommendations) {
+        if (columnarCatalog != null) {
+            return CompletableFuture.completedFuture(findGamesByGenreLocally(genero, maxRecommendations));
         }
+        return connectionManager.readListAsync(CypherQueries.GENRE_TOP_QUERY,
+            Values.parameters("genero", genero, "limit", maxRecommendations),
+            PersonalRecommenderService::toGenreRow);
     }
 
-    public List<Recomendacion> recommendGamesByGenre(String genero, int maxRecommendations) {
-    String query = "MATCH (game:Videojuego)-[:BELONGS_TO_GENRE]->(genre:Genre {name: $genero}) " +
-                   "RETURN game.titulo as titulo, game.puntajeCritica as puntaje " +
-                   "ORDER BY game.puntajeCritica DESC " +
-                   "LIMIT $limit";
-    
-    Result result = connectionManager.executeQuery(query, 
-        Values.parameters("genero", genero, "limit", maxRecommendations));
-    
-    List<Recomendacion> recomendaciones = new ArrayList<>();
-    while (result.hasNext()) {
-        Record record = result.next();
+    // Mejor puntaje de crítica primero; los juegos sin puntaje quedan al final por ventas globales
+    private List<Recomendacion> findGamesByGenreLocally(String genero, int maxRecommendations) {
+        return columnarCatalog.query(new CatalogQuery(genero, ColumnarCatalog.Column.PUNTAJE_CRITICA, maxRecommendations));
+    }
+
+    public ColumnarCatalog getColumnarCatalog() {
+        return columnarCatalog;
+    }
+
+    private static Recomendacion toGenreRow(Record record) {
         String titulo = record.get("titulo").asString();
         double puntaje = record.get("puntaje").asDouble();
         
-        recomendaciones.add(new Recomendacion(
+        return new Recomendacion(
             titulo, 
             titulo, 
             (int)(puntaje * 10), // Convertir a escala de 0-100
-            Recomendacion.TipoRecomendacion.PERSONAL));
+            Recomendacion.TipoRecomendacion.PERSONAL);
     }
-    
-    return recomendaciones;
-}
 }
@@ -0,0 +1,148 @@
+package com.example;
+
+import org.neo4j.driver.summary.ProfiledPlan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Registro de latencias por consulta con nombre. Las consultas Cypher se nombran con su texto
+// normalizado salvo que se registre un nombre explícito; los métodos de los recomendadores usan
+// nombres propios como "recomendador.amigos".
+// Con profileEvery > 0, una de cada profileEvery lecturas se ejecuta con PROFILE para sumar db hits.
+public class QueryMetrics {
+    private static final int MAX_NAME_LENGTH = 80;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> namesByQuery = new ConcurrentHashMap<>();
+    private final AtomicLong profileCounter = new AtomicLong();
+    private volatile int profileEvery;
+
+    public QueryMetrics() {
+        this(0);
+    }
+
+    public QueryMetrics(int profileEvery) {
+        setProfileEvery(profileEvery);
+    }
+
+    public void setProfileEvery(int profileEvery) {
+        if (profileEvery < 0) {
+            throw new IllegalArgumentException("profileEvery no puede ser negativo");
+        }
+        this.profileEvery = profileEvery;
+    }
+
+    public void registerName(String query, String name) {
+        namesByQuery.put(query, name);
+    }
+
+    // Nombre estable de una consulta: el registrado o su texto en una sola línea.
+    // Los textos largos se recortan y llevan su hash para que dos consultas con el mismo inicio no se mezclen.
+    public String nameOf(String query) {
+        return namesByQuery.computeIfAbsent(query, q -> {
+            String normalized = q.trim().replaceAll("\\s+", " ");
+            if (normalized.length() <= MAX_NAME_LENGTH) {
+                return normalized;
+            }
+            String hash = String.format("%08x", normalized.hashCode());
+            return normalized.substring(0, MAX_NAME_LENGTH - hash.length() - 4) + "... " + hash;
+        });
+    }
+
+    public boolean shouldProfile() {
+        int every = profileEvery;
+        return every > 0 && profileCounter.incrementAndGet() % every == 0;
+    }
+
+    public void record(String name, long nanos, long rows, boolean error) {
+        Entry entry = entries.computeIfAbsent(name, k -> new Entry());
+        entry.latency.record(nanos);
+        entry.rows.add(rows);
+        if (error) {
+            entry.errors.increment();
+        }
+    }
+
+    public void recordProfile(String name, ProfiledPlan plan) {
+        Entry entry = entries.computeIfAbsent(name, k -> new Entry());
+        entry.profiledCalls.increment();
+        entry.dbHits.add(totalDbHits(plan));
+    }
+
+    // Mide una operación síncrona; las listas devueltas cuentan como filas
+    public <T> T time(String name, Supplier<T> operation) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        T result = null;
+        try {
+            result = operation.get();
+            failed = false;
+            return result;
+        } finally {
+            record(name, System.nanoTime() - start, result instanceof List ? ((List<?>) result).size() : 0, failed);
+        }
+    }
+
+    // Mide desde el lanzamiento hasta que el futuro se completa, con éxito o con error
+    public <T> CompletableFuture<T> timeAsync(String name, Supplier<CompletableFuture<T>> operation) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            record(name, System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> record(name, System.nanoTime() - start,
+            result instanceof List ? ((List<?>) result).size() : 0, error != null));
+    }
+
+    public List<QueryStats> snapshot() {
+        List<QueryStats> stats = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry value = entry.getValue();
+            LatencyHistogram latency = value.latency;
+            stats.add(new QueryStats(entry.getKey(), latency.getCount(), value.errors.sum(), value.rows.sum(),
+                latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999),
+                latency.getMaxNanos(), latency.getMeanNanos(), value.profiledCalls.sum(), value.dbHits.sum()));
+        }
+        // Las más costosas en tiempo total primero
+        stats.sort(Comparator.comparingDouble((QueryStats s) -> s.getMeanNanos() * s.getCalls()).reversed());
+        return stats;
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("Métricas de consultas:");
+        for (QueryStats stats : snapshot()) {
+            report.append(System.lineSeparator()).append("  ").append(stats);
+        }
+        return report.toString();
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    private static long totalDbHits(ProfiledPlan plan) {
+        long hits = plan.dbHits();
+        for (ProfiledPlan child : plan.children()) {
+            hits += totalDbHits(child);
+        }
+        return hits;
+    }
+
+    private static final class Entry {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder profiledCalls = new LongAdder();
+        private final LongAdder dbHits = new LongAdder();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.Plan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Revisa con EXPLAIN el plan de cada consulta de los servicios y señala los operadores que recorren
+// toda una etiqueta o toda la base (falta un índice o la consulta no lo puede usar) y los productos
+// cartesianos (dos MATCH sin relación entre sí). EXPLAIN no ejecuta nada, así que sirve también
+// para las escrituras y se puede lanzar contra la base de producción.
+public class QueryPlanGuard {
+    static final Set<String> FORBIDDEN_OPERATORS = Set.of("AllNodesScan", "NodeByLabelScan", "CartesianProduct",
+        "DirectedRelationshipTypeScan", "UndirectedRelationshipTypeScan");
+
+    private final Neo4jConnectionManager connectionManager;
+    private final Map<String, Statement> statements = new LinkedHashMap<>();
+    // Construido con forServices: también señala las constantes de CypherQueries sin registrar
+    private boolean registryChecked;
+
+    public QueryPlanGuard(Neo4jConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    // Todas las consultas de CypherQueries con sus parámetros de ejemplo
+    public static QueryPlanGuard forServices(Neo4jConnectionManager connectionManager) {
+        QueryPlanGuard guard = new QueryPlanGuard(connectionManager);
+        for (CypherQueries.RegisteredQuery query : CypherQueries.all()) {
+            guard.register(query.getName(), query.getQuery(), query.getSampleParameters());
+            if (query.isFullScan()) {
+                guard.allowFullScan(query.getName());
+            }
+        }
+        guard.registryChecked = true;
+        return guard;
+    }
+
+    public void register(String name, String query, Value parameters) {
+        statements.put(name, new Statement(query, parameters));
+    }
+
+    // La consulta se sigue revisando, pero sus recorridos completos no cuentan como violación
+    public void allowFullScan(String name) {
+        Statement statement = statements.get(name);
+        if (statement != null) {
+            statement.fullScanAllowed = true;
+        }
+    }
+
+    // Una línea por operador prohibido; vacía si todos los planes usan índices
+    public List<String> check() {
+        List<String> violations = new ArrayList<>();
+        // Una constante sin registrar no se precompila al arrancar ni se revisa aquí
+        if (registryChecked) {
+            for (String name : CypherQueries.unregistered()) {
+                violations.add(name + ": sin registrar en CypherQueries");
+            }
+        }
+        for (Map.Entry<String, Statement> entry : statements.entrySet()) {
+            Statement statement = entry.getValue();
+            Plan plan;
+            try {
+                plan = explain(statement.query, statement.parameters);
+            } catch (RuntimeException e) {
+                violations.add(entry.getKey() + ": no se pudo planificar (" + e.getMessage() + ")");
+                continue;
+            }
+            collectViolations(entry.getKey(), plan, statement.fullScanAllowed, violations);
+        }
+        return violations;
+    }
+
+    public Plan explain(String query, Value parameters) {
+        return connectionManager.explain(query, parameters);
+    }
+
+    private static void collectViolations(String name, Plan plan, boolean fullScanAllowed, List<String> violations) {
+        String operator = operatorName(plan);
+        if (FORBIDDEN_OPERATORS.contains(operator) && !(fullScanAllowed && !operator.equals("CartesianProduct"))) {
+            Value details = plan.arguments().get("Details");
+            violations.add(name + ": " + operator + (details == null ? "" : " " + details.asString()));
+        }
+        for (Plan child : plan.children()) {
+            collectViolations(name, child, fullScanAllowed, violations);
+        }
+    }
+
+    // Neo4j 5 añade el runtime al nombre del operador (NodeByLabelScan@neo4j)
+    static String operatorName(Plan plan) {
+        String operator = plan.operatorType();
+        int at = operator.indexOf('@');
+        return at < 0 ? operator : operator.substring(0, at);
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    private static final class Statement {
+        private final String query;
+        private final Value parameters;
+        private boolean fullScanAllowed;
+
+        Statement(String query, Value parameters) {
+            this.query = query;
+            this.parameters = parameters;
+        }
+    }
+}
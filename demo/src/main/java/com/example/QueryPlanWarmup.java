@@ -0,0 +1,33 @@
+package com.example;
+
+import org.neo4j.driver.exceptions.Neo4jException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Precompila al arrancar el plan de cada consulta de CypherQueries. EXPLAIN planifica sin ejecutar y
+// deja el plan en la caché de Neo4j, así la primera petición real no paga la planificación.
+public class QueryPlanWarmup {
+    private final Neo4jConnectionManager connectionManager;
+
+    public QueryPlanWarmup(Neo4jConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    // Devuelve los nombres de las consultas que no se pudieron planificar; un fallo no detiene el resto
+    public List<String> warmUp() {
+        long start = System.nanoTime();
+        List<String> failed = new ArrayList<>();
+        for (CypherQueries.RegisteredQuery query : CypherQueries.all()) {
+            try {
+                connectionManager.explain(query.getQuery(), query.getSampleParameters());
+            } catch (Neo4jException e) {
+                System.err.println("No se pudo precompilar " + query.getName() + " (" + e.getMessage() + ")");
+                failed.add(query.getName());
+            }
+        }
+        System.out.println(String.format("Planes precompilados: %d consultas en %.1f s",
+            CypherQueries.all().size() - failed.size(), (System.nanoTime() - start) / 1e9));
+        return failed;
+    }
+}
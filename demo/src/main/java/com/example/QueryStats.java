@@ -0,0 +1,55 @@
+package com.example;
+
+// Latencias, filas y errores acumulados de una consulta o método en un instante dado
+public class QueryStats {
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+    private final double meanNanos;
+    private final long profiledCalls;
+    private final long dbHits;
+
+    public QueryStats(String name, long calls, long errors, long rows, long p50Nanos, long p99Nanos, long p999Nanos,
+                      long maxNanos, double meanNanos, long profiledCalls, long dbHits) {
+        this.name = name;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+        this.meanNanos = meanNanos;
+        this.profiledCalls = profiledCalls;
+        this.dbHits = dbHits;
+    }
+
+    public String getName() {return name;}
+    public long getCalls() {return calls;}
+    public long getErrors() {return errors;}
+    public long getRows() {return rows;}
+    public long getP50Nanos() {return p50Nanos;}
+    public long getP99Nanos() {return p99Nanos;}
+    public long getP999Nanos() {return p999Nanos;}
+    public long getMaxNanos() {return maxNanos;}
+    public double getMeanNanos() {return meanNanos;}
+    public long getProfiledCalls() {return profiledCalls;}
+    public long getDbHits() {return dbHits;}
+
+    // Promedio de db hits en las ejecuciones muestreadas con PROFILE
+    public double getDbHitsPerProfiledCall() {
+        return profiledCalls == 0 ? 0 : (double) dbHits / profiledCalls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-60s llamadas=%d errores=%d filas=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%s",
+            name, calls, errors, rows, p50Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6, maxNanos / 1e6,
+            profiledCalls == 0 ? "" : String.format(" dbHits=%.0f", getDbHitsPerProfiledCall()));
+    }
+}
@@ -8,7 +8,8 @@ public class Recomendacion {
     
     public enum TipoRecomendacion {
         PERSONAL,
-        COLABORATIVA
+        COLABORATIVA,
+        HIBRIDA
     }
     
     public Recomendacion(String juegoId, String juegoNombre, int puntuacion, TipoRecomendacion tipo) {
@@ -0,0 +1,207 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+// Caché LRU acotada de resultados de recomendación con TTL por estrategia.
+// Las entradas se indexan también por sujeto (usuario o juego) para poder invalidarlas de forma dirigida.
+public class RecommendationCache {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final Map<RecommendationStrategy, Long> ttlNanos;
+    private final LinkedHashMap<RecommendationKey, Entry> entries;
+    private final Map<String, Set<RecommendationKey>> keysBySubject;
+    // Cálculos en vuelo por sujeto y clave; una invalidación de la clave los marca para no guardarlos
+    private final Map<String, Map<RecommendationKey, Load>> loadsBySubject = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public RecommendationCache() {
+        this(DEFAULT_MAX_ENTRIES, defaultTtls());
+    }
+
+    public RecommendationCache(int maxEntries, Map<RecommendationStrategy, Duration> ttls) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries debe ser positivo");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = new EnumMap<>(RecommendationStrategy.class);
+        for (RecommendationStrategy strategy : RecommendationStrategy.values()) {
+            Duration ttl = ttls.get(strategy);
+            if (ttl == null) {
+                throw new IllegalArgumentException("Falta el TTL de " + strategy);
+            }
+            ttlNanos.put(strategy, ttl.toNanos());
+        }
+        this.keysBySubject = new HashMap<>();
+        // Orden de acceso: la entrada más antigua es la menos usada recientemente
+        this.entries = new LinkedHashMap<RecommendationKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RecommendationKey, Entry> eldest) {
+                if (size() > RecommendationCache.this.maxEntries) {
+                    unindex(eldest.getKey());
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Los datos sociales cambian más seguido que el catálogo
+    public static Map<RecommendationStrategy, Duration> defaultTtls() {
+        Map<RecommendationStrategy, Duration> ttls = new EnumMap<>(RecommendationStrategy.class);
+        ttls.put(RecommendationStrategy.FRIENDS, Duration.ofMinutes(5));
+        ttls.put(RecommendationStrategy.SIMILAR_USERS, Duration.ofMinutes(10));
+        ttls.put(RecommendationStrategy.USER_PREFERENCES, Duration.ofMinutes(10));
+        ttls.put(RecommendationStrategy.GAME, Duration.ofHours(1));
+        ttls.put(RecommendationStrategy.HYBRID, Duration.ofMinutes(5));
+        return ttls;
+    }
+
+    // Devuelve el resultado cacheado o lo calcula con loader y lo guarda
+    public List<Recomendacion> get(RecommendationKey key, Supplier<List<Recomendacion>> loader) {
+        List<Recomendacion> cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return load(key, loader);
+    }
+
+    // Calcula con loader y lo guarda, salvo que la clave se invalide mientras se calcula: el resultado
+    // podría haberse leído antes de la escritura que causó la invalidación.
+    // El cálculo se hace fuera del candado para no bloquear otras lecturas.
+    public List<Recomendacion> load(RecommendationKey key, Supplier<List<Recomendacion>> loader) {
+        Load load;
+        long startEpoch;
+        synchronized (this) {
+            load = loadsBySubject.computeIfAbsent(key.getSubjectId(), k -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Load());
+            load.loaders++;
+            startEpoch = load.epoch;
+        }
+        List<Recomendacion> loaded = null;
+        try {
+            loaded = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+        } finally {
+            synchronized (this) {
+                if (loaded != null && load.epoch == startEpoch) {
+                    put(key, loaded);
+                }
+                if (--load.loaders == 0) {
+                    Map<RecommendationKey, Load> loads = loadsBySubject.get(key.getSubjectId());
+                    loads.remove(key);
+                    if (loads.isEmpty()) {
+                        loadsBySubject.remove(key.getSubjectId());
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized List<Recomendacion> getIfPresent(RecommendationKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            entries.remove(key);
+            unindex(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(RecommendationKey key, List<Recomendacion> value) {
+        long expiresAt = System.nanoTime() + ttlNanos.get(key.getStrategy());
+        if (entries.put(key, new Entry(value, expiresAt)) == null) {
+            keysBySubject.computeIfAbsent(key.getSubjectId(), k -> new HashSet<>()).add(key);
+        }
+    }
+
+    // Elimina las entradas del sujeto para las estrategias indicadas (todas si no se indica ninguna).
+    // Usuarios y juegos comparten el espacio de ids, por eso conviene indicar las estrategias.
+    public synchronized int invalidate(String subjectId, RecommendationStrategy... strategies) {
+        Set<RecommendationStrategy> selected = strategies.length == 0
+            ? EnumSet.allOf(RecommendationStrategy.class)
+            : EnumSet.copyOf(Arrays.asList(strategies));
+        Map<RecommendationKey, Load> loads = loadsBySubject.get(subjectId);
+        if (loads != null) {
+            for (Map.Entry<RecommendationKey, Load> entry : loads.entrySet()) {
+                if (selected.contains(entry.getKey().getStrategy())) {
+                    entry.getValue().epoch++;
+                }
+            }
+        }
+        Set<RecommendationKey> keys = keysBySubject.get(subjectId);
+        if (keys == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (Iterator<RecommendationKey> it = keys.iterator(); it.hasNext(); ) {
+            RecommendationKey key = it.next();
+            if (selected.contains(key.getStrategy())) {
+                entries.remove(key);
+                it.remove();
+                removed++;
+            }
+        }
+        if (keys.isEmpty()) {
+            keysBySubject.remove(subjectId);
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        for (Map<RecommendationKey, Load> loads : loadsBySubject.values()) {
+            for (Load load : loads.values()) {
+                load.epoch++;
+            }
+        }
+        invalidations += entries.size();
+        entries.clear();
+        keysBySubject.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+
+    private void unindex(RecommendationKey key) {
+        Set<RecommendationKey> keys = keysBySubject.get(key.getSubjectId());
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysBySubject.remove(key.getSubjectId());
+            }
+        }
+    }
+
+    private static final class Load {
+        // Aumenta con cada invalidación de la clave mientras hay cálculos en vuelo
+        private long epoch;
+        private int loaders;
+    }
+
+    private static final class Entry {
+        private final List<Recomendacion> value;
+        private final long expiresAtNanos;
+
+        private Entry(List<Recomendacion> value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
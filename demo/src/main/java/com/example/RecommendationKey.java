@@ -0,0 +1,38 @@
+package com.example;
+
+import java.util.Objects;
+
+// Identifica una petición de recomendación: estrategia, usuario o juego, y límite
+public final class RecommendationKey {
+    private final RecommendationStrategy strategy;
+    private final String subjectId;
+    private final int limit;
+
+    public RecommendationKey(RecommendationStrategy strategy, String subjectId, int limit) {
+        this.strategy = strategy;
+        this.subjectId = subjectId;
+        this.limit = limit;
+    }
+
+    public RecommendationStrategy getStrategy() {return strategy;}
+    public String getSubjectId() {return subjectId;}
+    public int getLimit() {return limit;}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecommendationKey that = (RecommendationKey) o;
+        return limit == that.limit && strategy == that.strategy && subjectId.equals(that.subjectId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(strategy, subjectId, limit);
+    }
+
+    @Override
+    public String toString() {
+        return strategy + ":" + subjectId + ":" + limit;
+    }
+}
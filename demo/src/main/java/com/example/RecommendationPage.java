@@ -0,0 +1,75 @@
+package com.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+// Una página de recomendaciones ordenadas por puntuación descendente y id de juego ascendente.
+// nextCursor es null en la última página; si no, se pasa tal cual para pedir la siguiente.
+public class RecommendationPage {
+    private final List<Recomendacion> recommendations;
+    private final String nextCursor;
+
+    public RecommendationPage(List<Recomendacion> recommendations, String nextCursor) {
+        this.recommendations = recommendations;
+        this.nextCursor = nextCursor;
+    }
+
+    // rows trae hasta pageSize + 1 filas: la sobrante solo indica que hay otra página
+    public static RecommendationPage of(List<Recomendacion> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new RecommendationPage(rows, null);
+        }
+        List<Recomendacion> page = rows.subList(0, pageSize);
+        Recomendacion last = page.get(pageSize - 1);
+        return new RecommendationPage(page, new Cursor(last.getPuntuacion(), last.getJuegoId()).encode());
+    }
+
+    public List<Recomendacion> getRecommendations() {return recommendations;}
+    public String getNextCursor() {return nextCursor;}
+    public boolean hasNext() {return nextCursor != null;}
+
+    @Override
+    public String toString() {
+        return recommendations + (nextCursor == null ? "" : " -> " + nextCursor);
+    }
+
+    // Posición (puntuación, id de juego) de la última fila entregada. La página siguiente empieza en
+    // la primera fila estrictamente posterior, así que no se repiten ni se saltan filas con empate.
+    public static final class Cursor {
+        private final int score;
+        private final String gameId;
+
+        public Cursor(int score, String gameId) {
+            this.score = score;
+            this.gameId = gameId;
+        }
+
+        // null o vacío es la primera página
+        public static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            try {
+                String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int colon = text.indexOf(':');
+                return new Cursor(Integer.parseInt(text.substring(0, colon)), text.substring(colon + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((score + ":" + gameId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // true si (score, gameId) va después del cursor en el orden de las páginas
+        public boolean precedes(int otherScore, String otherGameId) {
+            return otherScore < score || (otherScore == score && otherGameId.compareTo(gameId) > 0);
+        }
+
+        public int getScore() {return score;}
+        public String getGameId() {return gameId;}
+    }
+}
@@ -0,0 +1,387 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servidor HTTP/JSON con las estrategias de recomendación:
+//   GET /recomendaciones/{amigos|similares|preferencias|juego|hibrida}?id=...&max=...
+//   GET /paginas/{similares|preferencias}?id=...&max=...&cursor=...  (cursor = "siguiente" de la página anterior)
+//   POST /interacciones  (con ingestor; una línea TIPO<tab>usuario<tab>destino por interacción, como `ingestar`)
+// Las interacciones entran por el InteractionIngestor del servidor, que invalida la caché de este mismo
+// proceso al escribirlas. Si su cola sigue llena se responde 503 y se puede reenviar el cuerpo entero:
+// los eventos repetidos se fusionan y MERGE no duplica aristas.
+// Cada petición corre en su propio hilo virtual, así que una espera a Neo4j no ocupa un hilo del sistema.
+// Un semáforo limita cuántas se atienden a la vez; las que no consiguen turno a tiempo reciben 503.
+// Al cerrar se deja de aceptar conexiones, se espera a las peticiones en curso y se cierra el driver.
+public class RecommendationServer implements AutoCloseable {
+    static final String PREFIX = "/recomendaciones/";
+    static final String PAGES_PREFIX = "/paginas/";
+    static final String INGEST_PATH = "/interacciones";
+
+    private static final Map<String, RecommendationStrategy> ROUTES = Map.of(
+        "amigos", RecommendationStrategy.FRIENDS,
+        "similares", RecommendationStrategy.SIMILAR_USERS,
+        "preferencias", RecommendationStrategy.USER_PREFERENCES,
+        "juego", RecommendationStrategy.GAME,
+        "hibrida", RecommendationStrategy.HYBRID);
+
+    private static final Map<String, RecommendationStrategy> PAGE_ROUTES = Map.of(
+        "similares", RecommendationStrategy.SIMILAR_USERS,
+        "preferencias", RecommendationStrategy.USER_PREFERENCES);
+
+    private final CachedRecommenderService recommender;
+    private final Neo4jConnectionManager connectionManager;
+    // Opcional: sin él no hay ruta de ingesta. Se cierra con el servidor
+    private final InteractionIngestor ingestor;
+    private final ServerSettings settings;
+    private final Semaphore permits;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile boolean closing;
+
+    public RecommendationServer(CachedRecommenderService recommender, Neo4jConnectionManager connectionManager,
+                                ServerSettings settings) {
+        this(recommender, connectionManager, null, settings);
+    }
+
+    // El ingestor debe invalidar la caché de recommender
+    public RecommendationServer(CachedRecommenderService recommender, Neo4jConnectionManager connectionManager,
+                                InteractionIngestor ingestor, ServerSettings settings) {
+        if (settings.getMaxConcurrentRequests() <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests debe ser positivo");
+        }
+        this.recommender = recommender;
+        this.connectionManager = connectionManager;
+        this.ingestor = ingestor;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxConcurrentRequests(), true);
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        // Cola de aceptación amplia: las ráfagas de conexiones no se rechazan antes de llegar al semáforo
+        server = HttpServer.create(new InetSocketAddress(settings.getPort()), 4096);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(PREFIX, exchange -> handleRecommendation(exchange, PREFIX, ROUTES));
+        server.createContext(PAGES_PREFIX, exchange -> handleRecommendation(exchange, PAGES_PREFIX, PAGE_ROUTES));
+        if (ingestor != null) {
+            server.createContext(INGEST_PATH, this::handleIngest);
+        }
+        server.createContext("/salud", this::handleHealth);
+        server.createContext("/metrics", new MetricsReporter(connectionManager.getMetrics()).handler());
+        server.start();
+        System.out.println("Servidor de recomendaciones en http://localhost:" + getPort() + PREFIX
+            + " (" + settings.getMaxConcurrentRequests() + " peticiones simultáneas)");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleRecommendation(HttpExchange exchange, String prefix,
+                                      Map<String, RecommendationStrategy> routes) throws IOException {
+        try {
+            if (closing) {
+                sendError(exchange, 503, "El servidor se está apagando");
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Solo se admite GET");
+                return;
+            }
+            RecommendationStrategy strategy = routes.get(exchange.getRequestURI().getPath().substring(prefix.length()));
+            if (strategy == null) {
+                sendError(exchange, 404, "Estrategia desconocida; use " + routes.keySet());
+                return;
+            }
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String id = parameters.get("id");
+            if (id == null || id.isEmpty()) {
+                sendError(exchange, 400, "Falta el parámetro id");
+                return;
+            }
+            int max;
+            try {
+                max = parameters.containsKey("max") ? Integer.parseInt(parameters.get("max")) : settings.getDefaultMaxRecommendations();
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "max debe ser un número");
+                return;
+            }
+            if (max <= 0 || max > settings.getMaxRecommendationsLimit()) {
+                sendError(exchange, 400, "max debe estar entre 1 y " + settings.getMaxRecommendationsLimit());
+                return;
+            }
+
+            if (!permits.tryAcquire(settings.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Servidor saturado");
+                return;
+            }
+            String json;
+            try {
+                json = prefix.equals(PAGES_PREFIX)
+                    ? toJson(id, strategy, recommendPage(strategy, id, max, parameters.get("cursor")))
+                    : toJson(id, strategy, recommend(strategy, id, max));
+            } finally {
+                permits.release();
+            }
+            send(exchange, 200, json);
+            served.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Petición interrumpida");
+        } catch (IllegalArgumentException e) {
+            // Cursor mal formado u otro parámetro inválido detectado por el servicio
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            sendError(exchange, 500, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private List<Recomendacion> recommend(RecommendationStrategy strategy, String id, int max) {
+        switch (strategy) {
+            case FRIENDS:
+                return recommender.recommendGamesByFriends(id, max);
+            case SIMILAR_USERS:
+                return recommender.recommendGamesBySimilarUsers(id, max);
+            case USER_PREFERENCES:
+                return recommender.recommendGamesByUserPreferences(id, max);
+            case GAME:
+                return recommender.recommendGamesByGame(id, max);
+            case HYBRID:
+                return recommender.recommendGamesHybrid(id, max);
+            default:
+                throw new IllegalArgumentException("Estrategia sin ruta: " + strategy);
+        }
+    }
+
+    private RecommendationPage recommendPage(RecommendationStrategy strategy, String id, int max, String cursor) {
+        switch (strategy) {
+            case SIMILAR_USERS:
+                return recommender.recommendGamesBySimilarUsersPage(id, max, cursor);
+            case USER_PREFERENCES:
+                return recommender.recommendGamesByUserPreferencesPage(id, max, cursor);
+            default:
+                throw new IllegalStateException("Estrategia sin paginación: " + strategy);
+        }
+    }
+
+    // Responde cuántas líneas se aceptaron, cuántas rechazó la cola llena y cuáles no se entendieron
+    private void handleIngest(HttpExchange exchange) throws IOException {
+        try {
+            if (closing) {
+                sendError(exchange, 503, "El servidor se está apagando");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Solo se admite POST");
+                return;
+            }
+            long accepted = 0;
+            long rejectedEvents = 0;
+            List<String> invalid = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    InteractionEvent event;
+                    try {
+                        event = InteractionEvent.parse(line);
+                    } catch (IllegalArgumentException e) {
+                        invalid.add(line);
+                        continue;
+                    }
+                    if (ingestor.submit(event)) {
+                        accepted++;
+                    } else {
+                        rejectedEvents++;
+                    }
+                }
+            }
+            StringBuilder json = new StringBuilder("{\"aceptadas\":").append(accepted)
+                .append(",\"rechazadas\":").append(rejectedEvents)
+                .append(",\"invalidas\":[");
+            for (int i = 0; i < invalid.size(); i++) {
+                json.append(i == 0 ? "" : ",");
+                appendString(json, invalid.get(i));
+            }
+            json.append("]}");
+            if (rejectedEvents > 0) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+            }
+            send(exchange, rejectedEvents > 0 ? 503 : invalid.isEmpty() ? 202 : 400, json.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Petición interrumpida");
+        } catch (IllegalStateException e) {
+            // El ingestor se cerró mientras se leía el cuerpo
+            sendError(exchange, 503, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, closing ? 503 : 200, "{\"estado\":\"" + (closing ? "apagando" : "ok") + "\""
+                + ",\"enCurso\":" + (settings.getMaxConcurrentRequests() - permits.availablePermits())
+                + ",\"atendidas\":" + served.get()
+                + ",\"rechazadas\":" + rejected.get()
+                + ",\"fallidas\":" + failed.get()
+                + ",\"calculos\":" + recommender.getSingleFlight().getExecutions()
+                + ",\"coalescidas\":" + recommender.getSingleFlight().getCoalesced() + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(name, value);
+        }
+        return parameters;
+    }
+
+    static String toJson(String id, RecommendationStrategy strategy, List<Recomendacion> recommendations) {
+        return appendRecommendations(new StringBuilder(64 + recommendations.size() * 96), id, strategy, recommendations)
+            .append('}').toString();
+    }
+
+    static String toJson(String id, RecommendationStrategy strategy, RecommendationPage page) {
+        StringBuilder json = appendRecommendations(new StringBuilder(96 + page.getRecommendations().size() * 96),
+            id, strategy, page.getRecommendations());
+        json.append(",\"siguiente\":");
+        appendString(json, page.getNextCursor());
+        return json.append('}').toString();
+    }
+
+    // Deja el objeto abierto para que la versión paginada añada el cursor
+    private static StringBuilder appendRecommendations(StringBuilder json, String id, RecommendationStrategy strategy,
+                                                       List<Recomendacion> recommendations) {
+        json.append("{\"id\":");
+        appendString(json, id);
+        json.append(",\"estrategia\":\"").append(strategy.name()).append("\",\"recomendaciones\":[");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Recomendacion recommendation = recommendations.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"juegoId\":");
+            appendString(json, recommendation.getJuegoId());
+            json.append(",\"nombre\":");
+            appendString(json, recommendation.getJuegoNombre());
+            json.append(",\"puntuacion\":").append(recommendation.getPuntuacion());
+            json.append(",\"tipo\":\"").append(recommendation.getTipo()).append("\"}");
+        }
+        return json.append(']');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        appendString(json, message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Bloquea hasta que close() termina; pensado para el hilo principal del modo servidor
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+        }
+        try {
+            if (server != null) {
+                long grace = settings.getShutdownGracePeriod().toMillis();
+                // stop() deja de aceptar conexiones y espera a los intercambios abiertos
+                server.stop((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(grace)));
+                executor.shutdown();
+                if (!executor.awaitTermination(grace, TimeUnit.MILLISECONDS)) {
+                    System.err.println("Quedaron peticiones sin terminar al apagar el servidor");
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Escribe lo pendiente antes de cerrar el driver; lo que falle queda en su registro
+            if (ingestor != null) {
+                ingestor.close();
+            }
+            connectionManager.cerrar();
+            System.out.println("Servidor detenido: " + served.get() + " atendidas, " + rejected.get() + " rechazadas, "
+                + failed.get() + " fallidas");
+            terminated.countDown();
+        }
+    }
+}
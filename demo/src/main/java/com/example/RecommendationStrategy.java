@@ -0,0 +1,10 @@
+package com.example;
+
+// Estrategias de recomendación que se pueden cachear y exponer
+public enum RecommendationStrategy {
+    FRIENDS,
+    SIMILAR_USERS,
+    USER_PREFERENCES,
+    GAME,
+    HYBRID
+}
@@ -0,0 +1,57 @@
+package com.example;
+
+import org.neo4j.driver.Values;
+import org.neo4j.driver.exceptions.Neo4jException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Crea las restricciones e índices que necesitan las consultas de los servicios. Todas las sentencias
+// llevan IF NOT EXISTS, así que se puede ejecutar en cada arranque. Sin ellas cada búsqueda por id o
+// nombre se convierte en un recorrido de toda la etiqueta (ver QueryPlanGuard).
+public class SchemaBootstrapper {
+    public static final int DEFAULT_AWAIT_SECONDS = 300;
+
+    static final List<String> STATEMENTS = List.of(
+        // Búsquedas puntuales: usuario por id, juego por id y por nombre, categorías por nombre
+        "CREATE CONSTRAINT user_id IF NOT EXISTS FOR (user:User) REQUIRE user.id IS UNIQUE",
+        "CREATE CONSTRAINT videojuego_id IF NOT EXISTS FOR (game:Videojuego) REQUIRE game.id IS UNIQUE",
+        "CREATE CONSTRAINT genre_name IF NOT EXISTS FOR (genre:Genre) REQUIRE genre.name IS UNIQUE",
+        "CREATE CONSTRAINT platform_name IF NOT EXISTS FOR (platform:Platform) REQUIRE platform.name IS UNIQUE",
+        "CREATE CONSTRAINT developer_name IF NOT EXISTS FOR (developer:Developer) REQUIRE developer.name IS UNIQUE",
+        "CREATE CONSTRAINT feature_name IF NOT EXISTS FOR (feature:Feature) REQUIRE feature.name IS UNIQUE",
+        // El nombre se repite entre plataformas, así que no puede ser único
+        "CREATE INDEX videojuego_nombre IF NOT EXISTS FOR (game:Videojuego) ON (game.nombre)",
+        // Marca de cambios que usa CatalogIndexRefresher
+        "CREATE INDEX videojuego_updated_at IF NOT EXISTS FOR (game:Videojuego) ON (game.updatedAt)"
+    );
+
+    private final Neo4jConnectionManager connectionManager;
+    private final int awaitSeconds;
+
+    public SchemaBootstrapper(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_AWAIT_SECONDS);
+    }
+
+    public SchemaBootstrapper(Neo4jConnectionManager connectionManager, int awaitSeconds) {
+        this.connectionManager = connectionManager;
+        this.awaitSeconds = awaitSeconds;
+    }
+
+    // Devuelve las sentencias que fallaron (por ejemplo, ids duplicados que impiden una restricción).
+    // Un fallo no detiene el resto: mejor arrancar con un índice de menos que no arrancar.
+    public List<String> bootstrap() {
+        List<String> failed = new ArrayList<>();
+        for (String statement : STATEMENTS) {
+            try {
+                connectionManager.write(statement, Values.parameters());
+            } catch (Neo4jException e) {
+                System.err.println("No se pudo crear el esquema: " + statement + " (" + e.getMessage() + ")");
+                failed.add(statement);
+            }
+        }
+        // Los índices se pueblan en segundo plano; hasta que estén ONLINE el planificador no los usa
+        connectionManager.write("CALL db.awaitIndexes($seconds)", Values.parameters("seconds", awaitSeconds));
+        return failed;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+import java.util.Arrays;
+
+// Suma puntuaciones enteras por clave entera densa (índice de juego) sin objetos por candidato.
+// Recuerda las claves tocadas en orden de llegada para recorrer solo los candidatos.
+public final class ScoreAccumulator {
+    private int[] scores;
+    private boolean[] present;
+    private int[] keys;
+    private int size;
+
+    public ScoreAccumulator(int expectedKeys) {
+        int capacity = Math.max(16, expectedKeys);
+        this.scores = new int[capacity];
+        this.present = new boolean[capacity];
+        this.keys = new int[16];
+    }
+
+    public void add(int key, int delta) {
+        if (key >= scores.length) {
+            int capacity = Math.max(key + 1, scores.length * 2);
+            scores = Arrays.copyOf(scores, capacity);
+            present = Arrays.copyOf(present, capacity);
+        }
+        if (!present[key]) {
+            present[key] = true;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size++] = key;
+        }
+        scores[key] += delta;
+    }
+
+    public boolean contains(int key) {
+        return key < present.length && present[key];
+    }
+
+    public int get(int key) {
+        return key < scores.length ? scores[key] : 0;
+    }
+
+    public int size() {return size;}
+
+    // Clave del i-ésimo candidato en orden de llegada
+    public int keyAt(int i) {return keys[i];}
+
+    // Vuelca todos los candidatos en el selector
+    public void offerTo(TopKSelector selector) {
+        for (int i = 0; i < size; i++) {
+            selector.offer(keys[i], scores[keys[i]]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            scores[keys[i]] = 0;
+            present[keys[i]] = false;
+        }
+        size = 0;
+    }
+}
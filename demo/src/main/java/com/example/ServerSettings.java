@@ -0,0 +1,56 @@
+package com.example;
+
+import java.time.Duration;
+
+// Parámetros del servidor HTTP de recomendaciones
+public class ServerSettings {
+    private int port = 8080;
+    // Peticiones que se atienden a la vez; el resto espera hasta acquireTimeout y luego recibe 503
+    private int maxConcurrentRequests = 256;
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+    // Tiempo que se espera a las peticiones en curso al apagar
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+    private int defaultMaxRecommendations = 10;
+    private int maxRecommendationsLimit = 100;
+
+    public ServerSettings() {
+    }
+
+    public ServerSettings(int port, int maxConcurrentRequests, Duration acquireTimeout, Duration shutdownGracePeriod) {
+        this.port = port;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeout = acquireTimeout;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    // Getters y setters
+    public int getPort() {return port;}
+    public void setPort(int port) {this.port = port;}
+
+    public int getMaxConcurrentRequests() {return maxConcurrentRequests;}
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {this.maxConcurrentRequests = maxConcurrentRequests;}
+
+    public Duration getAcquireTimeout() {return acquireTimeout;}
+    public void setAcquireTimeout(Duration acquireTimeout) {this.acquireTimeout = acquireTimeout;}
+
+    public Duration getShutdownGracePeriod() {return shutdownGracePeriod;}
+    public void setShutdownGracePeriod(Duration shutdownGracePeriod) {this.shutdownGracePeriod = shutdownGracePeriod;}
+
+    public int getDefaultMaxRecommendations() {return defaultMaxRecommendations;}
+    public void setDefaultMaxRecommendations(int defaultMaxRecommendations) {this.defaultMaxRecommendations = defaultMaxRecommendations;}
+
+    public int getMaxRecommendationsLimit() {return maxRecommendationsLimit;}
+    public void setMaxRecommendationsLimit(int maxRecommendationsLimit) {this.maxRecommendationsLimit = maxRecommendationsLimit;}
+
+    @Override
+    public String toString() {
+        return "ServerSettings{" +
+                "port=" + port +
+                ", maxConcurrentRequests=" + maxConcurrentRequests +
+                ", acquireTimeout=" + acquireTimeout +
+                ", shutdownGracePeriod=" + shutdownGracePeriod +
+                ", defaultMaxRecommendations=" + defaultMaxRecommendations +
+                ", maxRecommendationsLimit=" + maxRecommendationsLimit +
+                '}';
+    }
+}
@@ -0,0 +1,199 @@
+package com.example;
+
+import org.neo4j.driver.Values;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Materializa los top-K vecinos de cada juego como relaciones SIMILAR_TO {score, rank}
+// usando GameSimilarityModel. run() recalcula todo el catálogo; recompute() solo los juegos
+// cuyos vecinos pueden haber cambiado al modificarse los atributos o los LIKES de otros.
+// El modelo se queda en memoria entre llamadas: recompute() lee solo los LIKES de los juegos cambiados
+// y parchea sus filas; la primera llamada, o tras una recarga completa del catálogo, lo carga entero.
+public class SimilarityJob {
+    public static final int DEFAULT_TOP_K = 20;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final Neo4jConnectionManager connectionManager;
+    private final CatalogIndexRefresher catalog;
+    private final int topK;
+    private final int batchSize;
+    private final int parallelism;
+    private GameSimilarityModel model;
+
+    public SimilarityJob(Neo4jConnectionManager connectionManager, CatalogIndexRefresher catalog) {
+        this(connectionManager, catalog, DEFAULT_TOP_K, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimilarityJob(Neo4jConnectionManager connectionManager, CatalogIndexRefresher catalog,
+                         int topK, int batchSize, int parallelism) {
+        if (topK <= 0 || batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("topK, batchSize y parallelism deben ser positivos");
+        }
+        this.connectionManager = connectionManager;
+        this.catalog = catalog;
+        this.topK = topK;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    // Recalcula y reescribe los vecinos de todo el catálogo
+    public synchronized int run() {
+        long start = System.nanoTime();
+        model = GameSimilarityModel.load(connectionManager, catalog.current());
+        int[] games = IntStream.range(0, model.gameCount()).toArray();
+        long relationships = write(model, games);
+        System.out.println("SIMILAR_TO: " + games.length + " juegos, " + relationships + " relaciones en "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return games.length;
+    }
+
+    // Recalcula los vecinos de los juegos cambiados y de los que pueden verse afectados:
+    //  - los que hoy apuntan a un juego cambiado (su similitud pudo bajar),
+    //  - los que comparten rasgos con él y ahora lo tendrían por delante de su peor vecino.
+    // changedGameIds debe incluir los juegos cuyos LIKES cambiaron. Devuelve cuántos juegos se recalcularon.
+    public synchronized int recompute(Collection<String> changedGameIds) {
+        if (changedGameIds.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        catalog.refresh();
+        model = patchedModel(catalog.current(), changedGameIds);
+        CatalogIndex catalogIndex = model.getCatalogIndex();
+
+        Set<String> affected = new HashSet<>(changedGameIds);
+        affected.addAll(connectionManager.readList(CypherQueries.INCOMING_SIMILAR_QUERY,
+            Values.parameters("gameIds", new ArrayList<>(changedGameIds)), record -> record.get("gameId").asString()));
+
+        // Similitud nueva entre cada juego cambiado y sus candidatos
+        Map<String, Double> bestNewScore = new HashMap<>();
+        ScoreAccumulator scratch = new ScoreAccumulator(model.gameCount());
+        for (String gameId : changedGameIds) {
+            int game = catalogIndex.gameIndexOf(gameId);
+            if (game < 0) {
+                continue;
+            }
+            model.sharedWeights(game, scratch);
+            for (int i = 0; i < scratch.size(); i++) {
+                int other = scratch.keyAt(i);
+                bestNewScore.merge(catalogIndex.gameIdAt(other), model.similarity(game, other, scratch.get(other)), Math::max);
+            }
+        }
+        connectionManager.readEach(CypherQueries.NEIGHBOUR_FLOOR_QUERY,
+            Values.parameters("gameIds", new ArrayList<>(bestNewScore.keySet())),
+            record -> {
+                boolean full = record.get("neighbours").asLong() >= topK;
+                double floor = record.get("floor").isNull() ? 0 : record.get("floor").asDouble();
+                if (!full || bestNewScore.get(record.get("gameId").asString()) > floor) {
+                    affected.add(record.get("gameId").asString());
+                }
+            });
+
+        int[] games = affected.stream()
+            .mapToInt(catalogIndex::gameIndexOf)
+            .filter(game -> game >= 0)
+            .sorted()
+            .toArray();
+        // Los que ya no están en el índice solo pierden sus vecinos
+        List<String> removed = affected.stream()
+            .filter(gameId -> catalogIndex.gameIndexOf(gameId) < 0)
+            .collect(Collectors.toList());
+        if (!removed.isEmpty()) {
+            connectionManager.write(CypherQueries.DELETE_SIMILAR_QUERY, Values.parameters("gameIds", removed));
+        }
+
+        long relationships = write(model, games);
+        System.out.println("SIMILAR_TO incremental: " + changedGameIds.size() + " juegos cambiados, "
+            + games.length + " recalculados, " + relationships + " relaciones en "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return games.length;
+    }
+
+    // El refresco del catálogo es un delta que conserva los ids de los juegos, así que basta con
+    // sustituir las filas de los juegos cambiados en el modelo anterior
+    private GameSimilarityModel patchedModel(CatalogIndex catalogIndex, Collection<String> changedGameIds) {
+        if (model != null) {
+            List<Integer> changed = new ArrayList<>();
+            for (String gameId : changedGameIds) {
+                int game = catalogIndex.gameIndexOf(gameId);
+                if (game >= 0) {
+                    changed.add(game);
+                }
+            }
+            Map<Integer, List<String>> likers = new HashMap<>();
+            connectionManager.readEach(CypherQueries.MODEL_GAME_LIKES_QUERY,
+                Values.parameters("gameIds", new ArrayList<>(changedGameIds)),
+                record -> likers.computeIfAbsent(catalogIndex.gameIndexOf(record.get("gameId").asString()),
+                    game -> new ArrayList<>()).add(record.get("userId").asString()));
+            GameSimilarityModel patched = model.patch(catalogIndex, changed, likers);
+            if (patched != null) {
+                return patched;
+            }
+        }
+        return GameSimilarityModel.load(connectionManager, catalogIndex);
+    }
+
+    // Calcula cada lote en paralelo y lo escribe en una transacción que sustituye los vecinos anteriores
+    private long write(GameSimilarityModel model, int[] games) {
+        CatalogIndex catalogIndex = model.getCatalogIndex();
+        ThreadLocal<ScoreAccumulator> scratch = ThreadLocal.withInitial(() -> new ScoreAccumulator(model.gameCount()));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long relationships = 0;
+        try {
+            for (int from = 0; from < games.length; from += batchSize) {
+                int[] batch = Arrays.copyOfRange(games, from, Math.min(games.length, from + batchSize));
+                List<Map<String, Object>> rows = pool.submit(() -> Arrays.stream(batch)
+                        .parallel()
+                        .mapToObj(game -> neighbourRows(model, game, scratch.get()))
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList()))
+                    .get();
+
+                List<String> gameIds = new ArrayList<>(batch.length);
+                for (int game : batch) {
+                    gameIds.add(catalogIndex.gameIdAt(game));
+                }
+                connectionManager.executeWrite("similitud.escrituraLote", tx -> {
+                    tx.run(CypherQueries.DELETE_SIMILAR_QUERY, Values.parameters("gameIds", gameIds)).consume();
+                    tx.run(CypherQueries.WRITE_SIMILAR_QUERY, Values.parameters("rows", rows)).consume();
+                    return null;
+                });
+                relationships += rows.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo de similitud interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló el cálculo de similitud", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return relationships;
+    }
+
+    private List<Map<String, Object>> neighbourRows(GameSimilarityModel model, int game, ScoreAccumulator scratch) {
+        CatalogIndex catalogIndex = model.getCatalogIndex();
+        TopKSelector selector = model.topSimilar(game, topK, scratch);
+        int[] neighbours = new int[selector.size()];
+        double[] scores = new double[selector.size()];
+        int count = selector.drainInto(neighbours, scores);
+
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int rank = 0; rank < count; rank++) {
+            if (scores[rank] <= 0) {
+                break;
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("gameId", catalogIndex.gameIdAt(game));
+            row.put("similarId", catalogIndex.gameIdAt(neighbours[rank]));
+            row.put("score", scores[rank]);
+            row.put("rank", rank + 1);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Asigna a cada texto un id entero denso (0, 1, 2, ...) en orden de llegada
+public class StringDictionary {
+    private final Map<String, Integer> ids;
+    private final List<String> values;
+
+    public StringDictionary() {
+        this.ids = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    public StringDictionary(StringDictionary other) {
+        this.ids = new HashMap<>(other.ids);
+        this.values = new ArrayList<>(other.values);
+    }
+
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int newId = values.size();
+        ids.put(value, newId);
+        values.add(value);
+        return newId;
+    }
+
+    // -1 si el texto no está en el diccionario
+    public int find(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    public String valueOf(int id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
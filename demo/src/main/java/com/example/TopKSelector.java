@@ -0,0 +1,135 @@
+package com.example;
+
+// Selecciona los k mejores candidatos (clave entera, puntuación) con un min-heap acotado: O(n log k)
+// y sin objetos por candidato. La raíz es el peor de los seleccionados, así que un candidato nuevo
+// solo entra si le gana. A igual puntuación gana la clave que va primero según KeyOrder,
+// de modo que el resultado no depende del orden en que llegan los candidatos.
+public final class TopKSelector {
+    @FunctionalInterface
+    public interface KeyOrder {
+        int compare(int a, int b);
+    }
+
+    public static final KeyOrder NATURAL_ORDER = Integer::compare;
+
+    private final int k;
+    private final KeyOrder keyOrder;
+    private final int[] keys;
+    private final double[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        this(k, NATURAL_ORDER);
+    }
+
+    public TopKSelector(int k, KeyOrder keyOrder) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k no puede ser negativo");
+        }
+        this.k = k;
+        this.keyOrder = keyOrder;
+        this.keys = new int[k];
+        this.scores = new double[k];
+    }
+
+    public void offer(int key, double score) {
+        if (size < k) {
+            keys[size] = key;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (k > 0 && better(key, score, keys[0], scores[0])) {
+            keys[0] = key;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {return size;}
+
+    // Peor seleccionado hasta ahora; solo tiene sentido si size() > 0
+    public int worstKey() {return keys[0];}
+    public double worstScore() {return scores[0];}
+
+    // true si (key, score) quedaría por delante del peor seleccionado
+    public boolean beatsWorst(int key, double score) {
+        return size < k || (k > 0 && better(key, score, keys[0], scores[0]));
+    }
+
+    // Claves de mejor a peor. Vacía el selector.
+    public int[] drainKeys() {
+        int[] ordered = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = keys[0];
+            removeRoot();
+        }
+        return ordered;
+    }
+
+    // Claves y puntuaciones de mejor a peor en arreglos paralelos. Vacía el selector.
+    public int drainInto(int[] orderedKeys, double[] orderedScores) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            orderedKeys[i] = keys[0];
+            orderedScores[i] = scores[0];
+            removeRoot();
+        }
+        return count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void removeRoot() {
+        size--;
+        keys[0] = keys[size];
+        scores[0] = scores[size];
+        if (size > 0) {
+            siftDown(0);
+        }
+    }
+
+    private boolean better(int keyA, double scoreA, int keyB, double scoreB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB;
+        }
+        return keyOrder.compare(keyA, keyB) < 0;
+    }
+
+    private void siftUp(int position) {
+        int key = keys[position];
+        double score = scores[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!better(keys[parent], scores[parent], key, score)) {
+                break;
+            }
+            keys[position] = keys[parent];
+            scores[position] = scores[parent];
+            position = parent;
+        }
+        keys[position] = key;
+        scores[position] = score;
+    }
+
+    private void siftDown(int position) {
+        int key = keys[position];
+        double score = scores[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && better(keys[child], scores[child], keys[right], scores[right])) {
+                child = right;
+            }
+            if (!better(key, score, keys[child], scores[child])) {
+                break;
+            }
+            keys[position] = keys[child];
+            scores[position] = scores[child];
+            position = child;
+        }
+        keys[position] = key;
+        scores[position] = score;
+    }
+}
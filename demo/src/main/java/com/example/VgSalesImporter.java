@@ -0,0 +1,154 @@
+package com.example;
+
+import org.neo4j.driver.Values;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Carga vgsales.csv en el grafo con escrituras UNWIND + MERGE por lotes.
+// Los lotes se escriben en paralelo; los reintentos por deadlock los maneja executeWrite.
+public class VgSalesImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_PARTITIONS = 4;
+
+    private final Neo4jConnectionManager connectionManager;
+    private final int batchSize;
+    private final int partitions;
+
+    public VgSalesImporter(Neo4jConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_BATCH_SIZE, DEFAULT_PARTITIONS);
+    }
+
+    public VgSalesImporter(Neo4jConnectionManager connectionManager, int batchSize, int partitions) {
+        if (batchSize <= 0 || partitions <= 0) {
+            throw new IllegalArgumentException("batchSize y partitions deben ser positivos");
+        }
+        this.connectionManager = connectionManager;
+        this.batchSize = batchSize;
+        this.partitions = partitions;
+    }
+
+    // Los MERGE por id y por nombre necesitan las restricciones únicas antes del primer lote
+    public void createConstraints() {
+        new SchemaBootstrapper(connectionManager).bootstrap();
+    }
+
+    // Importa el CSV indicado, o el de los recursos si path es null
+    public ImportResult importCsv(String path) throws IOException {
+        try (InputStream in = VgSalesReader.open(path)) {
+            return importCsv(in);
+        }
+    }
+
+    public ImportResult importCsv(InputStream in) {
+        createConstraints();
+
+        long start = System.nanoTime();
+        AtomicLong rowsWritten = new AtomicLong();
+        int batches = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        // Limita los lotes en vuelo para que el parser no se adelante a las escrituras
+        Semaphore inFlight = new Semaphore(partitions * 2);
+        List<Future<?>> pending = new ArrayList<>();
+
+        try (Stream<VgSalesRecord> records = VgSalesReader.stream(in)) {
+            Iterator<VgSalesRecord> iterator = records.iterator();
+            List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(toParameters(iterator.next()));
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    List<Map<String, Object>> rows = batch;
+                    batch = new ArrayList<>(batchSize);
+                    inFlight.acquireUninterruptibly();
+                    pending.add(executor.submit(() -> {
+                        try {
+                            connectionManager.write(CypherQueries.IMPORT_BATCH_QUERY, Values.parameters("rows", rows));
+                            long total = rowsWritten.addAndGet(rows.size());
+                            System.out.println("Importadas " + total + " filas");
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                    batches++;
+                }
+            }
+
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al escribir un lote: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        ImportResult result = new ImportResult(rowsWritten.get(), batches, System.nanoTime() - start);
+        System.out.println(result);
+        return result;
+    }
+
+    private static Map<String, Object> toParameters(VgSalesRecord record) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", record.getId());
+        row.put("rank", record.getRank());
+        row.put("nombre", record.getNombre());
+        row.put("plataforma", record.getPlataforma());
+        row.put("anio", record.getAnio());
+        row.put("genero", record.getGenero());
+        row.put("publicador", record.getPublicador());
+        row.put("ventasNA", record.getVentasNA());
+        row.put("ventasEU", record.getVentasEU());
+        row.put("ventasJP", record.getVentasJP());
+        row.put("ventasOtras", record.getVentasOtras());
+        row.put("ventasGlobales", record.getVentasGlobales());
+        return row;
+    }
+
+    public static class ImportResult {
+        private final long rows;
+        private final int batches;
+        private final long elapsedNanos;
+
+        public ImportResult(long rows, int batches, long elapsedNanos) {
+            this.rows = rows;
+            this.batches = batches;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() {return rows;}
+        public int getBatches() {return batches;}
+        public long getElapsedMillis() {return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);}
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Importación completada: " + rows + " filas en " + batches + " lotes, " +
+                getElapsedMillis() + " ms (" + String.format("%.0f", getRowsPerSecond()) + " filas/s)";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Lee vgsales.csv como flujo, sin cargar el archivo completo en memoria
+public final class VgSalesReader {
+    public static final String RESOURCE = "/vgsales.csv";
+
+    private VgSalesReader() {
+    }
+
+    // Abre el CSV incluido en los recursos o, si se indica, un archivo local
+    public static InputStream open(String path) throws IOException {
+        if (path != null) {
+            return Files.newInputStream(Path.of(path));
+        }
+        InputStream in = VgSalesReader.class.getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IOException("No se encontró el recurso " + RESOURCE);
+        }
+        return in;
+    }
+
+    // El flujo debe cerrarse para liberar el archivo
+    public static Stream<VgSalesRecord> stream(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        return reader.lines()
+            .skip(1) // encabezado
+            .filter(line -> !line.isEmpty())
+            .map(VgSalesReader::parse)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    public static List<VgSalesRecord> readAll(String path) throws IOException {
+        List<VgSalesRecord> records = new ArrayList<>(17000);
+        try (Stream<VgSalesRecord> stream = stream(open(path))) {
+            stream.forEach(records::add);
+        }
+        return records;
+    }
+
+    static VgSalesRecord parse(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() < 11) {
+            throw new IllegalArgumentException("Fila inválida en vgsales.csv: " + line);
+        }
+        return new VgSalesRecord(
+            Integer.parseInt(fields.get(0)),
+            fields.get(1),
+            fields.get(2),
+            parseYear(fields.get(3)),
+            nullIfMissing(fields.get(4)),
+            nullIfMissing(fields.get(5)),
+            Double.parseDouble(fields.get(6)),
+            Double.parseDouble(fields.get(7)),
+            Double.parseDouble(fields.get(8)),
+            Double.parseDouble(fields.get(9)),
+            Double.parseDouble(fields.get(10)));
+    }
+
+    // Separa una línea CSV respetando campos entre comillas y comillas escapadas ("")
+    public static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(12);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static Integer parseYear(String value) {
+        return "N/A".equals(value) || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static String nullIfMissing(String value) {
+        return "N/A".equals(value) || value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example;
+
+// Una fila de vgsales.csv
+public class VgSalesRecord {
+    private final int rank;
+    private final String nombre;
+    private final String plataforma;
+    private final Integer anio;
+    private final String genero;
+    private final String publicador;
+    private final double ventasNA;
+    private final double ventasEU;
+    private final double ventasJP;
+    private final double ventasOtras;
+    private final double ventasGlobales;
+
+    public VgSalesRecord(int rank, String nombre, String plataforma, Integer anio, String genero, String publicador,
+                         double ventasNA, double ventasEU, double ventasJP, double ventasOtras, double ventasGlobales) {
+        this.rank = rank;
+        this.nombre = nombre;
+        this.plataforma = plataforma;
+        this.anio = anio;
+        this.genero = genero;
+        this.publicador = publicador;
+        this.ventasNA = ventasNA;
+        this.ventasEU = ventasEU;
+        this.ventasJP = ventasJP;
+        this.ventasOtras = ventasOtras;
+        this.ventasGlobales = ventasGlobales;
+    }
+
+    // El Rank es único en el archivo y se usa como game.id
+    public String getId() {return String.valueOf(rank);}
+    public int getRank() {return rank;}
+    public String getNombre() {return nombre;}
+    public String getPlataforma() {return plataforma;}
+    public Integer getAnio() {return anio;}
+    public String getGenero() {return genero;}
+    public String getPublicador() {return publicador;}
+    public double getVentasNA() {return ventasNA;}
+    public double getVentasEU() {return ventasEU;}
+    public double getVentasJP() {return ventasJP;}
+    public double getVentasOtras() {return ventasOtras;}
+    public double getVentasGlobales() {return ventasGlobales;}
+
+    @Override
+    public String toString() {
+        return "VgSalesRecord{" +
+                "rank=" + rank +
+                ", nombre='" + nombre + '\'' +
+                ", plataforma='" + plataforma + '\'' +
+                ", anio=" + anio +
+                ", genero='" + genero + '\'' +
+                ", publicador='" + publicador + '\'' +
+                ", ventasGlobales=" + ventasGlobales +
+                '}';
+    }
+}
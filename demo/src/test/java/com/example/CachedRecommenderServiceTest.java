@@ -0,0 +1,85 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedRecommenderServiceTest {
+    private static final RecommendationKey KEY = new RecommendationKey(RecommendationStrategy.FRIENDS, "u1", 10);
+    private static final List<Recomendacion> OLD =
+        List.of(new Recomendacion("1", "Antes", 1, Recomendacion.TipoRecomendacion.COLABORATIVA));
+    private static final List<Recomendacion> NEW =
+        List.of(new Recomendacion("2", "Después", 1, Recomendacion.TipoRecomendacion.COLABORATIVA));
+
+    private final RecommendationCache cache = new RecommendationCache();
+    private final CachedRecommenderService service = new CachedRecommenderService(null, null, null, null, cache);
+
+    // Quien se une después de una invalidación a un cálculo que empezó antes recibe su resultado,
+    // pero ni él ni el líder lo guardan
+    @Test
+    void joinAfterInvalidationDoesNotStoreStaleResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Recomendacion>> leader = CompletableFuture.supplyAsync(() -> service.load(KEY, () -> {
+            started.countDown();
+            await(release);
+            return OLD;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cache.invalidate("u1", RecommendationStrategy.FRIENDS);
+        CompletableFuture<List<Recomendacion>> joined = CompletableFuture.supplyAsync(() -> service.load(KEY, () -> {
+            throw new AssertionError("debía unirse al cálculo en vuelo");
+        }));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertEquals(OLD, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(OLD, joined.get(5, TimeUnit.SECONDS));
+        assertNull(cache.getIfPresent(KEY));
+        assertEquals(NEW, service.load(KEY, () -> NEW));
+        assertEquals(NEW, cache.getIfPresent(KEY));
+    }
+
+    @Test
+    void joinWithoutInvalidationSharesStoredResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Recomendacion>> leader = CompletableFuture.supplyAsync(() -> service.load(KEY, () -> {
+            started.countDown();
+            await(release);
+            return OLD;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<Recomendacion>> joined = CompletableFuture.supplyAsync(() -> service.load(KEY, () -> NEW));
+        waitForCoalesced(1);
+        release.countDown();
+
+        assertEquals(OLD, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(OLD, joined.get(5, TimeUnit.SECONDS));
+        assertEquals(OLD, cache.getIfPresent(KEY));
+        assertEquals(1, service.getSingleFlight().getExecutions());
+    }
+
+    private void waitForCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getSingleFlight().getCoalesced() < expected) {
+            assertTrue(System.nanoTime() < deadline, "la segunda llamada no se unió al cálculo en vuelo");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
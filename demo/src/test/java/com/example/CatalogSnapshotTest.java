@@ -0,0 +1,159 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+    private static final CatalogIndexLoader.CatalogVersion VERSION = new CatalogIndexLoader.CatalogVersion(4, 1234567890123L);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsGamesAndBitmaps() throws IOException {
+        CatalogIndex index = new CatalogIndex.Builder()
+            .addGenre("g1", "Tetris", "Puzzle")
+            .addGenre("g2", "Doom", "Shooter")
+            .addGenre("g2", "Doom", "Acción")
+            .addPlatform("g1", null, "GB")
+            .addPlatform("g3", null, "PC")
+            .addDeveloper("g2", null, "id Software")
+            .addRating("g2", null, "M")
+            .addMultiplayer("g2", null)
+            .addMultiplayer("g4", "Año ñandú")
+            .build();
+
+        CatalogSnapshot snapshot = writeAndRead(index);
+
+        assertEquals(VERSION, snapshot.getVersion());
+        CatalogIndex copy = snapshot.getIndex();
+        assertEquals(4, copy.gameCount());
+        for (int game = 0; game < index.gameCount(); game++) {
+            assertEquals(index.gameIdAt(game), copy.gameIdAt(game));
+            assertEquals(index.gameNameAt(game), copy.gameNameAt(game));
+            assertEquals(game, copy.gameIndexOf(index.gameIdAt(game)));
+        }
+        // g3 nunca recibió nombre
+        assertNull(copy.gameNameAt(copy.gameIndexOf("g3")));
+        assertEquals("Año ñandú", copy.gameNameAt(copy.gameIndexOf("g4")));
+        assertEquals(index.getGenres(), copy.getGenres());
+        assertEquals(index.getPlatforms(), copy.getPlatforms());
+        assertEquals(index.getDevelopers(), copy.getDevelopers());
+        // Ratings y multijugador no tienen getter: se comparan por los bytes que se vuelven a escribir
+        assertArrayEquals(bytes(index), bytes(copy));
+    }
+
+    @Test
+    void roundTripOfEmptyIndex() throws IOException {
+        CatalogSnapshot snapshot = writeAndRead(CatalogIndex.empty());
+
+        CatalogIndex copy = snapshot.getIndex();
+        assertEquals(0, copy.gameCount());
+        assertEquals(Map.of(), copy.getGenres());
+        assertEquals(Map.of(), copy.getPlatforms());
+        assertEquals(Map.of(), copy.getDevelopers());
+        assertArrayEquals(bytes(CatalogIndex.empty()), bytes(copy));
+    }
+
+    // Juegos sin ninguna categoría: todos los mapas vacíos pero los nombres se conservan
+    @Test
+    void roundTripOfGamesWithoutCategories() throws IOException {
+        CatalogIndex.Builder builder = new CatalogIndex.Builder();
+        builder.addGame("g1", "Solo");
+        builder.addGame("g2", null);
+
+        CatalogIndex copy = writeAndRead(builder.build()).getIndex();
+        assertEquals(2, copy.gameCount());
+        assertEquals("Solo", copy.gameNameAt(0));
+        assertNull(copy.gameNameAt(1));
+        assertEquals(Set.of(), copy.getGenres().keySet());
+    }
+
+    @Test
+    void missingFileIsNull() {
+        assertNull(CatalogSnapshot.read(dir.resolve("no-existe.snapshot")));
+    }
+
+    @Test
+    void badMagicIsNull() throws IOException {
+        Path file = dir.resolve("catalogo.snapshot");
+        CatalogSnapshot.write(file, sampleIndex(), VERSION);
+        patchInt(file, 0, 0x12345678);
+
+        assertNull(CatalogSnapshot.read(file));
+    }
+
+    @Test
+    void unknownFormatVersionIsNull() throws IOException {
+        Path file = dir.resolve("catalogo.snapshot");
+        CatalogSnapshot.write(file, sampleIndex(), VERSION);
+        patchInt(file, 4, 99);
+
+        assertNull(CatalogSnapshot.read(file));
+    }
+
+    @Test
+    void truncatedFileIsNull() throws IOException {
+        Path file = dir.resolve("catalogo.snapshot");
+        CatalogSnapshot.write(file, sampleIndex(), VERSION);
+        byte[] content = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(content, content.length - 3));
+        assertNull(CatalogSnapshot.read(file));
+
+        Files.write(file, Arrays.copyOf(content, 10));
+        assertNull(CatalogSnapshot.read(file));
+    }
+
+    // Un snapshot nuevo reemplaza al anterior sin dejar el temporal
+    @Test
+    void writeReplacesPreviousSnapshot() throws IOException {
+        Path file = dir.resolve("catalogo.snapshot");
+        CatalogSnapshot.write(file, CatalogIndex.empty(), new CatalogIndexLoader.CatalogVersion(0, 0));
+        CatalogSnapshot.write(file, sampleIndex(), VERSION);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+        assertNotNull(snapshot);
+        assertEquals(VERSION, snapshot.getVersion());
+        assertEquals(1, snapshot.getIndex().gameCount());
+        assertFalse(Files.exists(dir.resolve("catalogo.snapshot.tmp")));
+    }
+
+    private CatalogSnapshot writeAndRead(CatalogIndex index) throws IOException {
+        Path file = dir.resolve("catalogo.snapshot");
+        CatalogSnapshot.write(file, index, VERSION);
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+        assertNotNull(snapshot);
+        return snapshot;
+    }
+
+    private static CatalogIndex sampleIndex() {
+        return new CatalogIndex.Builder().addGenre("g1", "Tetris", "Puzzle").build();
+    }
+
+    private static byte[] bytes(CatalogIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void patchInt(Path file, int offset, int value) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        ByteBuffer.wrap(content).putInt(offset, value);
+        Files.write(file, content);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationPageTest {
+
+    // Recorre todas las páginas como lo hace la consulta: filas posteriores al cursor, hasta pageSize + 1
+    @Test
+    void walkingAllPagesReturnsEveryRowOnce() {
+        List<Recomendacion> all = rankedRows(new Random(11), 37);
+        for (int pageSize = 1; pageSize <= all.size() + 1; pageSize++) {
+            List<Recomendacion> seen = new ArrayList<>();
+            Set<String> ids = new HashSet<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                RecommendationPage page = RecommendationPage.of(rowsAfter(all, cursor, pageSize + 1), pageSize);
+                assertFalse(page.getRecommendations().isEmpty(), "página vacía con pageSize " + pageSize);
+                assertTrue(page.getRecommendations().size() <= pageSize);
+                for (Recomendacion row : page.getRecommendations()) {
+                    assertTrue(ids.add(row.getJuegoId()), "fila repetida " + row.getJuegoId() + " con pageSize " + pageSize);
+                    seen.add(row);
+                }
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(all, seen, "pageSize " + pageSize);
+            assertEquals((all.size() + pageSize - 1) / pageSize, pages, "pageSize " + pageSize);
+        }
+    }
+
+    @Test
+    void exactlyPageSizeRowsHasNoNextPage() {
+        List<Recomendacion> rows = rankedRows(new Random(5), 4);
+
+        RecommendationPage page = RecommendationPage.of(rows, 4);
+        assertEquals(rows, page.getRecommendations());
+        assertFalse(page.hasNext());
+        assertFalse(RecommendationPage.of(List.of(), 4).hasNext());
+    }
+
+    @Test
+    void extraRowIsDroppedAndMarksNextPage() {
+        List<Recomendacion> rows = List.of(row("b", 5), row("c", 5), row("a", 3));
+
+        RecommendationPage page = RecommendationPage.of(rows, 2);
+        assertEquals(rows.subList(0, 2), page.getRecommendations());
+        RecommendationPage.Cursor cursor = RecommendationPage.Cursor.decode(page.getNextCursor());
+        assertEquals(5, cursor.getScore());
+        assertEquals("c", cursor.getGameId());
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        for (RecommendationPage.Cursor cursor : List.of(
+                new RecommendationPage.Cursor(0, "1"),
+                new RecommendationPage.Cursor(-7, "juego:con:dos puntos"),
+                new RecommendationPage.Cursor(Integer.MAX_VALUE, "Pokémon/ñ?&="))) {
+            String encoded = cursor.encode();
+            assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+            RecommendationPage.Cursor decoded = RecommendationPage.Cursor.decode(encoded);
+            assertEquals(cursor.getScore(), decoded.getScore());
+            assertEquals(cursor.getGameId(), decoded.getGameId());
+        }
+    }
+
+    @Test
+    void emptyCursorIsFirstPage() {
+        assertNull(RecommendationPage.Cursor.decode(null));
+        assertNull(RecommendationPage.Cursor.decode(""));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecommendationPage.Cursor.decode("%%%"));
+        // Base64 válido sin ':'
+        assertThrows(IllegalArgumentException.class, () -> RecommendationPage.Cursor.decode("c2lu"));
+        // Base64 válido con puntuación no numérica
+        assertThrows(IllegalArgumentException.class, () -> RecommendationPage.Cursor.decode("eDph"));
+    }
+
+    @Test
+    void precedesFollowsPageOrder() {
+        RecommendationPage.Cursor cursor = new RecommendationPage.Cursor(5, "m");
+
+        assertTrue(cursor.precedes(4, "a"));
+        assertTrue(cursor.precedes(5, "n"));
+        assertFalse(cursor.precedes(5, "m"));
+        assertFalse(cursor.precedes(5, "l"));
+        assertFalse(cursor.precedes(6, "z"));
+    }
+
+    // Pocas puntuaciones distintas para que haya muchos empates, y ids que no ordenan igual como número
+    private static List<Recomendacion> rankedRows(Random random, int count) {
+        List<Recomendacion> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(row(String.valueOf(i * 7 % 100), random.nextInt(4)));
+        }
+        rows.sort(Comparator.comparingInt(Recomendacion::getPuntuacion).reversed()
+            .thenComparing(Recomendacion::getJuegoId));
+        return rows;
+    }
+
+    private static List<Recomendacion> rowsAfter(List<Recomendacion> all, String encodedCursor, int limit) {
+        RecommendationPage.Cursor cursor = RecommendationPage.Cursor.decode(encodedCursor);
+        List<Recomendacion> rows = new ArrayList<>();
+        for (Recomendacion row : all) {
+            if (rows.size() == limit) {
+                break;
+            }
+            if (cursor == null || cursor.precedes(row.getPuntuacion(), row.getJuegoId())) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Recomendacion row(String gameId, int score) {
+        return new Recomendacion(gameId, "Juego " + gameId, score, Recomendacion.TipoRecomendacion.PERSONAL);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreAccumulatorTest {
+
+    @Test
+    void sumsPerKeyInArrivalOrder() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(8);
+        accumulator.add(5, 2);
+        accumulator.add(1, 1);
+        accumulator.add(5, 3);
+        accumulator.add(3, -1);
+
+        assertEquals(3, accumulator.size());
+        assertArrayEquals(new int[] {5, 1, 3}, new int[] {accumulator.keyAt(0), accumulator.keyAt(1), accumulator.keyAt(2)});
+        assertEquals(5, accumulator.get(5));
+        assertEquals(1, accumulator.get(1));
+        assertEquals(-1, accumulator.get(3));
+        assertTrue(accumulator.contains(3));
+        assertFalse(accumulator.contains(2));
+        assertEquals(0, accumulator.get(2));
+    }
+
+    // Una clave sumada a cero sigue siendo candidata
+    @Test
+    void zeroTotalIsStillPresent() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(4);
+        accumulator.add(2, 1);
+        accumulator.add(2, -1);
+
+        assertTrue(accumulator.contains(2));
+        assertEquals(1, accumulator.size());
+    }
+
+    @Test
+    void growsPastExpectedKeys() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(0);
+        assertFalse(accumulator.contains(1_000));
+        assertEquals(0, accumulator.get(1_000));
+
+        for (int key = 0; key < 100; key++) {
+            accumulator.add(key * 37, key);
+        }
+        assertEquals(100, accumulator.size());
+        assertEquals(99, accumulator.get(99 * 37));
+        assertEquals(99 * 37, accumulator.keyAt(99));
+    }
+
+    @Test
+    void offerToFeedsEveryCandidate() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(16);
+        accumulator.add(4, 1);
+        accumulator.add(7, 3);
+        accumulator.add(2, 3);
+        accumulator.add(4, 1);
+
+        TopKSelector selector = new TopKSelector(3);
+        accumulator.offerTo(selector);
+        assertArrayEquals(new int[] {2, 7, 4}, selector.drainKeys());
+    }
+
+    @Test
+    void clearResetsScoresForReuse() {
+        ScoreAccumulator accumulator = new ScoreAccumulator(16);
+        accumulator.add(3, 10);
+        accumulator.add(9, 4);
+        accumulator.clear();
+
+        assertEquals(0, accumulator.size());
+        assertFalse(accumulator.contains(3));
+        assertEquals(0, accumulator.get(3));
+
+        accumulator.add(9, 1);
+        assertEquals(1, accumulator.size());
+        assertEquals(9, accumulator.keyAt(0));
+        assertEquals(1, accumulator.get(9));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSelectorTest {
+
+    // El heap tiene que dar lo mismo que ordenar todo y cortar, con los empates por clave
+    @Test
+    void matchesFullSortOnRandomInput() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int k = random.nextInt(20);
+            int n = random.nextInt(200);
+            List<int[]> candidates = new ArrayList<>();
+            TopKSelector selector = new TopKSelector(k);
+            for (int key = 0; key < n; key++) {
+                // Pocas puntuaciones distintas para forzar empates
+                int score = random.nextInt(10);
+                candidates.add(new int[] {key, score});
+                selector.offer(key, score);
+            }
+            candidates.sort(Comparator.<int[]>comparingInt(c -> -c[1]).thenComparingInt(c -> c[0]));
+            int expectedSize = Math.min(k, n);
+            assertEquals(expectedSize, selector.size());
+            if (expectedSize > 0) {
+                int[] worst = candidates.get(expectedSize - 1);
+                assertEquals(worst[0], selector.worstKey());
+                assertEquals(worst[1], selector.worstScore());
+            }
+
+            int[] keys = new int[expectedSize];
+            double[] scores = new double[expectedSize];
+            assertEquals(expectedSize, selector.drainInto(keys, scores));
+            for (int i = 0; i < expectedSize; i++) {
+                assertEquals(candidates.get(i)[0], keys[i]);
+                assertEquals(candidates.get(i)[1], scores[i]);
+            }
+            assertEquals(0, selector.size());
+        }
+    }
+
+    @Test
+    void tiesDoNotDependOnArrivalOrder() {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 0; key < 50; key++) {
+            keys.add(key);
+        }
+        int[] expected = null;
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            Collections.shuffle(keys, random);
+            TopKSelector selector = new TopKSelector(5);
+            for (int key : keys) {
+                selector.offer(key, 1.0);
+            }
+            int[] drained = selector.drainKeys();
+            if (expected == null) {
+                expected = drained;
+            }
+            assertArrayEquals(expected, drained);
+        }
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, expected);
+    }
+
+    @Test
+    void keyOrderDecidesTies() {
+        TopKSelector selector = new TopKSelector(3, (a, b) -> Integer.compare(b, a));
+        for (int key = 0; key < 10; key++) {
+            selector.offer(key, 2.0);
+        }
+        selector.offer(42, 1.0);
+
+        assertArrayEquals(new int[] {9, 8, 7}, selector.drainKeys());
+    }
+
+    @Test
+    void drainIntoOrdersBestFirst() {
+        TopKSelector selector = new TopKSelector(4);
+        selector.offer(10, 0.5);
+        selector.offer(11, 3.0);
+        selector.offer(12, 1.5);
+        selector.offer(13, 3.0);
+        selector.offer(14, -1.0);
+        selector.offer(15, 2.0);
+
+        int[] keys = new int[4];
+        double[] scores = new double[4];
+        assertEquals(4, selector.drainInto(keys, scores));
+        assertArrayEquals(new int[] {11, 13, 15, 12}, keys);
+        assertArrayEquals(new double[] {3.0, 3.0, 2.0, 1.5}, scores);
+    }
+
+    @Test
+    void beatsWorstFollowsSelection() {
+        TopKSelector selector = new TopKSelector(2);
+        assertTrue(selector.beatsWorst(5, 0.0));
+        selector.offer(5, 1.0);
+        selector.offer(6, 1.0);
+
+        assertFalse(selector.beatsWorst(7, 1.0));
+        assertTrue(selector.beatsWorst(4, 1.0));
+        assertTrue(selector.beatsWorst(9, 1.5));
+        assertFalse(selector.beatsWorst(0, 0.5));
+    }
+
+    @Test
+    void zeroKSelectsNothing() {
+        TopKSelector selector = new TopKSelector(0);
+        selector.offer(1, 100.0);
+
+        assertEquals(0, selector.size());
+        assertFalse(selector.beatsWorst(1, 100.0));
+        assertArrayEquals(new int[0], selector.drainKeys());
+        assertEquals(0, selector.drainInto(new int[0], new double[0]));
+    }
+
+    @Test
+    void negativeKIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKSelector(-1));
+    }
+
+    @Test
+    void clearAllowsReuse() {
+        TopKSelector selector = new TopKSelector(2);
+        selector.offer(1, 10.0);
+        selector.offer(2, 9.0);
+        selector.clear();
+
+        assertEquals(0, selector.size());
+        selector.offer(3, 1.0);
+        selector.offer(4, 2.0);
+        selector.offer(5, 0.5);
+        assertArrayEquals(new int[] {4, 3}, selector.drainKeys());
+
+        // Vaciado con drain también queda listo para otra ronda
+        selector.offer(6, 1.0);
+        assertArrayEquals(new int[] {6}, selector.drainKeys());
+    }
+}